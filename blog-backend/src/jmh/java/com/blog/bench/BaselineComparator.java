@@ -0,0 +1,102 @@
+package com.blog.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares a JMH JSON result with the checked-in baseline and fails the build when any
+// benchmark got slower by more than the threshold (0.15 = 15%) and the difference is larger
+// than the two runs' error margins combined, i.e. their confidence intervals do not overlap.
+// Without a baseline the result becomes the baseline.
+// Usage: BaselineComparator <baseline.json> <result.json> <threshold> [updateBaseline]
+public final class BaselineComparator {
+    
+    private BaselineComparator() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Path.of(args[0]);
+        Path resultFile = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        boolean update = args.length > 3 && Boolean.parseBoolean(args[3]);
+    
+        if (update || !Files.exists(baselineFile)) {
+            Files.copy(resultFile, baselineFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded " + resultFile + " as the new baseline " + baselineFile);
+            return;
+        }
+    
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = byName(objectMapper.readTree(baselineFile.toFile()));
+        Map<String, JsonNode> result = byName(objectMapper.readTree(resultFile.toFile()));
+    
+        int regressions = 0;
+        System.out.printf("%-70s %22s %22s %8s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-70s %22s %22s %8s%n", entry.getKey(), "-", format(after), "new");
+                continue;
+            }
+    
+            double change = slowdown(before, after);
+            boolean significant = Math.abs(score(after) - score(before)) > error(before) + error(after);
+            boolean regressed = change > threshold && significant;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %22s %22s %+7.1f%%%s%n", entry.getKey(), format(before), format(after),
+                    change * 100, regressed ? "  REGRESSION" : change > threshold ? "  (within error)" : "");
+        }
+    
+        if (regressions > 0) {
+            throw new IllegalStateException(String.format(
+                    "%d benchmark(s) regressed by more than %.0f%%", regressions, threshold * 100));
+        }
+    }
+    
+    // Positive when the current run is slower, whichever way the mode counts
+    private static double slowdown(JsonNode before, JsonNode after) {
+        double ratio = score(after) / score(before);
+        boolean throughput = "thrpt".equals(after.path("mode").asText());
+        return throughput ? 1 / ratio - 1 : ratio - 1;
+    }
+    
+    private static double score(JsonNode run) {
+        return run.path("primaryMetric").path("score").asDouble();
+    }
+    
+    // Half width of the 99.9% confidence interval; NaN (a single iteration) counts as none
+    private static double error(JsonNode run) {
+        double error = run.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+    
+    private static String format(JsonNode run) {
+        return String.format("%.3f +- %.3f", score(run), error(run));
+    }
+    
+    // Benchmark name plus its @Param values, so parameterized runs are compared one to one
+    private static Map<String, JsonNode> byName(JsonNode runs) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText()
+                    .replace(BaselineComparator.class.getPackageName() + ".", ""));
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byName.put(name.toString(), run);
+        }
+        return byName;
+    }
+}
@@ -0,0 +1,112 @@
+package com.blog.bench;
+
+import com.blog.entity.Category;
+import com.blog.entity.Post;
+import com.blog.entity.PostStatus;
+import com.blog.entity.Role;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.service.ContentUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Deterministic inputs shaped like production data: Vietnamese titles, ~100 KB Quill HTML
+// bodies and posts with 20 tags
+final class Fixtures {
+    
+    static final String LONG_TITLE =
+            "Hướng dẫn chi tiết xây dựng ứng dụng blog với Spring Boot, Next.js và PostgreSQL: "
+            + "từ thiết kế cơ sở dữ liệu, bảo mật JWT đến tối ưu hiệu năng và triển khai Docker";
+    
+    static final int CONTENT_BYTES = 100 * 1024;
+    static final int TAGS_PER_POST = 20;
+    static final int PAGE_SIZE = 10;
+    
+    private static final String[] SENTENCES = {
+            "Đây là một đoạn văn mẫu viết bằng tiếng Việt có dấu, dùng để kiểm tra hiệu năng xử lý nội dung.",
+            "Lập trình viên thường gặp khó khăn khi tối ưu truy vấn cơ sở dữ liệu trong các ứng dụng lớn.",
+            "Bộ nhớ đệm giúp giảm độ trễ đáng kể nhưng cần chiến lược vô hiệu hóa hợp lý.",
+            "Người đọc sẽ thấy rằng việc đo lường trước khi tối ưu luôn là bước quan trọng nhất."
+    };
+    
+    private Fixtures() {
+    }
+    
+    // Roughly what the Quill editor produces: headings, formatted paragraphs, lists, code, images
+    static String quillHtml(int minBytes) {
+        StringBuilder html = new StringBuilder(minBytes + 1024);
+        int section = 0;
+        while (html.length() < minBytes) {
+            section++;
+            html.append("<h2>Phần ").append(section).append(": Tối ưu hiệu năng &amp; mở rộng</h2>");
+            for (int i = 0; i < 4; i++) {
+                html.append("<p>").append(SENTENCES[i])
+                        .append(" <strong>").append(SENTENCES[(i + 1) % SENTENCES.length]).append("</strong>")
+                        .append(" <em>").append(SENTENCES[(i + 2) % SENTENCES.length]).append("</em>&nbsp;")
+                        .append("<a href=\"https://example.com/bai-viet/").append(section).append("\" rel=\"noopener noreferrer\" target=\"_blank\">liên kết</a>")
+                        .append("</p>");
+            }
+            html.append("<ol><li>Đo lường độ trễ</li><li>Tìm điểm nghẽn</li><li>Thay đổi và đo lại</li></ol>");
+            html.append("<blockquote>").append(SENTENCES[section % SENTENCES.length]).append("</blockquote>");
+            html.append("<pre class=\"ql-syntax\" spellcheck=\"false\">SELECT * FROM posts WHERE status = 'PUBLISHED' &lt; 10;\n</pre>");
+            html.append("<p><img src=\"https://cdn.example.com/images/").append(section).append(".png\"></p>");
+        }
+        return html.toString();
+    }
+    
+    static Post post(long id, String content, boolean storedSummary) {
+        User author = User.builder()
+                .id(7L)
+                .username("nguyenvana")
+                .email("nguyenvana@example.com")
+                .role(Role.AUTHOR)
+                .build();
+        Category category = Category.builder()
+                .id(3L)
+                .name("Lập trình Java")
+                .slug("lap-trinh-java")
+                .build();
+    
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < TAGS_PER_POST; i++) {
+            tags.add(Tag.builder()
+                    .id((long) i + 1)
+                    .name("Chủ đề số " + (i + 1))
+                    .slug("chu-de-so-" + (i + 1))
+                    .build());
+        }
+    
+        Post post = Post.builder()
+                .id(id)
+                .title(LONG_TITLE + " #" + id)
+                .slug("huong-dan-chi-tiet-xay-dung-ung-dung-blog-" + id)
+                .content(content)
+                .status(PostStatus.PUBLISHED)
+                .author(author)
+                .category(category)
+                .tags(tags)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 8, 0).plusHours(id))
+                .updatedAt(LocalDateTime.of(2024, 1, 2, 8, 0).plusHours(id))
+                .build();
+    
+        if (storedSummary) {
+            ContentUtil.Summary summary = ContentUtil.summarize(content);
+            post.setExcerpt(summary.getExcerpt());
+            post.setWordCount(summary.getWordCount());
+            post.setReadingTime(summary.getReadingTime());
+        }
+        return post;
+    }
+    
+    static List<Post> page(String content) {
+        List<Post> posts = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            posts.add(post(i + 1, content, true));
+        }
+        return posts;
+    }
+}
@@ -0,0 +1,54 @@
+package com.blog.bench;
+
+import com.blog.entity.Role;
+import com.blog.entity.User;
+import com.blog.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class JwtBenchmark {
+    
+    private JwtService jwtService;
+    private User user;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService("benchmark-secret-key-benchmark-secret-key-0123456789", 86_400_000L);
+        user = User.builder()
+                .id(42L)
+                .username("nguyenvana")
+                .email("nguyenvana@example.com")
+                .role(Role.AUTHOR)
+                .build();
+        token = jwtService.generateToken(user);
+    }
+    
+    // What JwtAuthenticationFilter does on every authenticated request
+    @Benchmark
+    public Claims parseToken() {
+        return jwtService.parseToken(token);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+}
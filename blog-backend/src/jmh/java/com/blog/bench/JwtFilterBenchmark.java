@@ -0,0 +1,159 @@
+package com.blog.bench;
+
+import com.blog.entity.Role;
+import com.blog.entity.User;
+import com.blog.repository.UserRepository;
+import com.blog.security.JwtAuthenticationFilter;
+import com.blog.security.JwtService;
+import com.blog.security.TokenVersions;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// One authenticated request through JwtAuthenticationFilter against the path it replaced:
+// three parses (subject, then subject and expiry again), each deriving the HMAC key, plus the
+// user lookup by email. The lookup runs on in-memory H2, so a real database adds its round trip.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class JwtFilterBenchmark {
+    
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-0123456789";
+    private static final String EMAIL = "nguyenvana@example.com";
+    
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private Connection connection;
+    private PreparedStatement findUser;
+    
+    @Setup
+    public void setUp() throws SQLException {
+        JwtService jwtService = new JwtService(SECRET, 86_400_000L);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById(42L)).thenReturn(Optional.of(0));
+        filter = new JwtAuthenticationFilter(jwtService,
+                username -> {
+                    throw new UsernameNotFoundException(username);
+                },
+                new TokenVersions(userRepository),
+                new SimpleMeterRegistry());
+        token = jwtService.generateToken(User.builder()
+                .id(42L)
+                .username("nguyenvana")
+                .email(EMAIL)
+                .role(Role.AUTHOR)
+                .tokenVersion(0)
+                .build());
+    
+        connection = DriverManager.getConnection("jdbc:h2:mem:jwt-bench;MODE=PostgreSQL", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(50), "
+                    + "email VARCHAR(100) UNIQUE, password VARCHAR(100), role VARCHAR(20))");
+            statement.execute("INSERT INTO users VALUES (42, 'nguyenvana', '" + EMAIL + "', "
+                    + "'$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', 'AUTHOR')");
+        }
+        findUser = connection.prepareStatement(
+                "SELECT id, username, email, password, role FROM users WHERE email = ?");
+    }
+    
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+    
+    @Benchmark
+    public Authentication filter() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return authenticated();
+    }
+    
+    @Benchmark
+    public Authentication legacyFilter() throws SQLException {
+        MockHttpServletRequest request = request();
+        String jwt = request.getHeader("Authorization").substring(7);
+        String email = legacyParse(jwt).getSubject();
+        UserDetails userDetails = loadUser(email);
+        if (legacyParse(jwt).getSubject().equals(userDetails.getUsername())
+                && !legacyParse(jwt).getExpiration().before(new Date())) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
+        return authenticated();
+    }
+    
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/my-posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+    
+    private static Authentication authenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+    
+    // What JwtService did per call before the key and parser were built once
+    private static Claims legacyParse(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+    
+    private UserDetails loadUser(String email) throws SQLException {
+        findUser.setString(1, email);
+        try (ResultSet row = findUser.executeQuery()) {
+            if (!row.next()) {
+                throw new UsernameNotFoundException(email);
+            }
+            return new org.springframework.security.core.userdetails.User(row.getString("email"),
+                    row.getString("password"),
+                    List.of(new SimpleGrantedAuthority("ROLE_" + row.getString("role"))));
+        }
+    }
+}
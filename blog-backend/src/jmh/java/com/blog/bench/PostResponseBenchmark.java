@@ -0,0 +1,67 @@
+package com.blog.bench;
+
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.Post;
+import com.blog.service.ContentRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class PostResponseBenchmark {
+    
+    private Post summarized;
+    private Post unsummarized;
+    private String content;
+    private ContentRenderer.Rendered rendered;
+    
+    @Setup
+    public void setUp() {
+        content = Fixtures.quillHtml(Fixtures.CONTENT_BYTES);
+        summarized = Fixtures.post(1, content, true);
+        // Rows written before excerpts were stored fall back to stripping the HTML per request
+        unsummarized = Fixtures.post(2, content, false);
+        rendered = ContentRenderer.render(content);
+    }
+    
+    @Benchmark
+    public PostResponse listItem() {
+        return PostResponse.fromEntity(summarized);
+    }
+    
+    @Benchmark
+    public PostResponse detail() {
+        return PostResponse.fromEntity(summarized, true);
+    }
+    
+    // What the detail view costs now that rendering happens once on write
+    @Benchmark
+    public PostResponse detailPrerendered() {
+        return PostResponse.fromEntity(summarized, rendered);
+    }
+    
+    // The write-time cost the pipeline moved off the read path
+    @Benchmark
+    public ContentRenderer.Rendered render() {
+        return ContentRenderer.render(content);
+    }
+    
+    @Benchmark
+    public PostResponse listItemWithoutStoredExcerpt() {
+        return PostResponse.fromEntity(unsummarized);
+    }
+}
@@ -0,0 +1,69 @@
+package com.blog.bench;
+
+import com.blog.dto.response.PageResponse;
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class SerializationBenchmark {
+    
+    private ObjectMapper objectMapper;
+    private PageResponse<PostResponse> feedPage;
+    private PostResponse detail;
+    
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot builds for the API
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    
+        String content = Fixtures.quillHtml(Fixtures.CONTENT_BYTES);
+        List<Post> posts = Fixtures.page(content);
+        List<PostResponse> items = posts.stream()
+                .map(PostResponse::fromEntity)
+                .collect(Collectors.toList());
+        feedPage = PageResponse.<PostResponse>builder()
+                .content(items)
+                .page(0)
+                .size(Fixtures.PAGE_SIZE)
+                .totalElements(1_000)
+                .totalPages(100)
+                .first(true)
+                .last(false)
+                .build();
+        detail = PostResponse.fromEntity(posts.get(0), true);
+    }
+    
+    @Benchmark
+    public byte[] feedPage() throws Exception {
+        return objectMapper.writeValueAsBytes(feedPage);
+    }
+    
+    @Benchmark
+    public byte[] postDetail() throws Exception {
+        return objectMapper.writeValueAsBytes(detail);
+    }
+}
@@ -0,0 +1,328 @@
+package com.blog.loadtest;
+
+import com.blog.service.ContentUtil;
+import com.blog.service.SlugUtil;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+// Bulk-loads a production-sized dataset straight through JDBC, on top of the schema Hibernate
+// created and the rows from data.sql. Categories and tags follow a Zipf distribution (a few
+// are huge, most are small), statuses and dates are skewed like a real blog's.
+// Standalone: DataGenerator <jdbcUrl> <user> <password> <posts>
+public class DataGenerator {
+    
+    // Every generated author shares this password, hashed once per run
+    static final String PASSWORD = "Password123";
+    
+    private static final int BATCH_SIZE = 500;
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int CATEGORIES = 40;
+    private static final int TAGS = 3_000;
+    private static final int POSTS_PER_AUTHOR = 200;
+    private static final int SAMPLE_SLUGS = 20_000;
+    private static final int LOGIN_USERS = 100;
+    
+    static final String[] WORDS = {
+            "java", "spring", "boot", "postgres", "docker", "kubernetes", "react", "nextjs", "bảo", "mật",
+            "hiệu", "năng", "lập", "trình", "cơ", "sở", "dữ", "liệu", "bộ", "nhớ", "đệm", "truy", "vấn",
+            "tối", "ưu", "kiến", "trúc", "microservice", "api", "kiểm", "thử", "triển", "khai", "máy",
+            "chủ", "giao", "diện", "người", "dùng", "thiết", "kế", "hệ", "thống", "mạng", "đám", "mây"
+    };
+    
+    private final DataSource dataSource;
+    private final int threads;
+    
+    // Published slugs written by this run, a uniform sample for the load driver's detail requests
+    private final List<String> sampleSlugs = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong sampleCounter = new AtomicLong();
+    // Generated authors the load driver can log in as, with PASSWORD
+    private final List<String> usernames = new ArrayList<>();
+    
+    public DataGenerator(DataSource dataSource, int threads) {
+        this.dataSource = dataSource;
+        this.threads = threads;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: DataGenerator <jdbcUrl> <user> <password> <posts>");
+            return;
+        }
+        DataSource dataSource = new DriverManagerDataSource(args[0], args[1], args[2]);
+        new DataGenerator(dataSource, Runtime.getRuntime().availableProcessors()).generate(Long.parseLong(args[3]));
+    }
+    
+    public List<String> getSampleSlugs() {
+        return sampleSlugs;
+    }
+    
+    public List<String> getUsernames() {
+        return usernames;
+    }
+    
+    public void generate(long posts) throws Exception {
+        long start = System.currentTimeMillis();
+        String run = Long.toString(start, 36);
+    
+        List<Long> authorIds = insertUsers(run, (int) Math.max(10, posts / POSTS_PER_AUTHOR));
+        List<Long> categoryIds = insertNamed("categories", run, CATEGORIES, "Chuyên mục");
+        List<Long> tagIds = insertNamed("tags", run, TAGS, "Chủ đề");
+        Zipf categories = new Zipf(categoryIds.size(), 1.1);
+        Zipf tags = new Zipf(tagIds.size(), 1.2);
+    
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long from = 0; from < posts; from += CHUNK_SIZE) {
+                long first = from;
+                long count = Math.min(CHUNK_SIZE, posts - from);
+                chunks.add(executor.submit(() -> {
+                    insertPosts(run, first, count, authorIds, categoryIds, categories, tagIds, tags);
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    
+        System.out.printf("Generated %d posts, %d authors, %d categories, %d tags in %d s%n",
+                posts, authorIds.size(), categoryIds.size(), tagIds.size(),
+                (System.currentTimeMillis() - start) / 1000);
+    }
+    
+    private List<Long> insertUsers(String run, int count) throws SQLException {
+        List<Long> ids = new ArrayList<>(count);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO users (username, email, password, role, token_version, created_at, updated_at) "
+                             + "VALUES (?, ?, ?, 'AUTHOR', 0, ?, ?)", new String[]{"id"})) {
+            connection.setAutoCommit(false);
+            // A second run against the same database gets its own names
+            String prefix = exists(connection, "loaduser1") ? "loaduser-" + run + "-" : "loaduser";
+            String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 1; i <= count; i++) {
+                String username = prefix + i;
+                if (usernames.size() < LOGIN_USERS) {
+                    usernames.add(username);
+                }
+                insert.setString(1, username);
+                insert.setString(2, username + "@load.test");
+                insert.setString(3, passwordHash);
+                insert.setTimestamp(4, now);
+                insert.setTimestamp(5, now);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == count) {
+                    executeBatch(insert, ids);
+                }
+            }
+            connection.commit();
+        }
+        return ids;
+    }
+    
+    private List<Long> insertNamed(String table, String run, int count, String prefix) throws SQLException {
+        List<Long> ids = new ArrayList<>(count);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO " + table + " (name, slug, created_at) VALUES (?, ?, ?)", new String[]{"id"})) {
+            connection.setAutoCommit(false);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 1; i <= count; i++) {
+                String name = prefix + " " + i + " " + run;
+                insert.setString(1, name);
+                insert.setString(2, SlugUtil.toSlug(name));
+                insert.setTimestamp(3, now);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == count) {
+                    executeBatch(insert, ids);
+                }
+            }
+            connection.commit();
+        }
+        return ids;
+    }
+    
+    private void insertPosts(String run, long first, long count, List<Long> authorIds, List<Long> categoryIds,
+                             Zipf categories, List<Long> tagIds, Zipf tags) throws SQLException {
+        SplittableRandom random = new SplittableRandom(first);
+        LocalDateTime now = LocalDateTime.now();
+    
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insertPost = connection.prepareStatement(
+                     "INSERT INTO posts (title, slug, content, excerpt, word_count, reading_time, status, "
+                             + "author_id, category_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                     new String[]{"id"});
+             PreparedStatement insertTag = connection.prepareStatement(
+                     "INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)")) {
+            connection.setAutoCommit(false);
+    
+            List<long[]> tagsPerPost = new ArrayList<>(BATCH_SIZE);
+            for (long n = first; n < first + count; n++) {
+                String title = title(random, n);
+                String slug = SlugUtil.toSlug(title) + "-" + run;
+                String content = content(random);
+                ContentUtil.Summary summary = ContentUtil.summarize(content);
+                String status = status(random);
+                LocalDateTime createdAt = now.minusMinutes(random.nextLong(3L * 365 * 24 * 60));
+    
+                insertPost.setString(1, title);
+                insertPost.setString(2, slug);
+                insertPost.setString(3, content);
+                insertPost.setString(4, summary.getExcerpt());
+                insertPost.setInt(5, summary.getWordCount());
+                insertPost.setInt(6, summary.getReadingTime());
+                insertPost.setString(7, status);
+                insertPost.setLong(8, authorIds.get(random.nextInt(authorIds.size())));
+                insertPost.setLong(9, categoryIds.get(categories.next(random)));
+                insertPost.setTimestamp(10, Timestamp.valueOf(createdAt));
+                insertPost.setTimestamp(11, Timestamp.valueOf(createdAt.plusHours(random.nextInt(48))));
+                insertPost.addBatch();
+    
+                // 1-8 distinct tags, popular ones far more often
+                long[] postTags = IntStream.range(0, 1 + random.nextInt(8)).map(i -> tags.next(random)).distinct()
+                        .mapToLong(tagIds::get).toArray();
+                tagsPerPost.add(postTags);
+    
+                if (status.equals("PUBLISHED")) {
+                    sample(slug, random);
+                }
+    
+                if (tagsPerPost.size() == BATCH_SIZE || n == first + count - 1) {
+                    List<Long> postIds = new ArrayList<>(tagsPerPost.size());
+                    executeBatch(insertPost, postIds);
+                    for (int i = 0; i < postIds.size(); i++) {
+                        for (long tagId : tagsPerPost.get(i)) {
+                            insertTag.setLong(1, postIds.get(i));
+                            insertTag.setLong(2, tagId);
+                            insertTag.addBatch();
+                        }
+                    }
+                    insertTag.executeBatch();
+                    connection.commit();
+                    tagsPerPost.clear();
+                }
+            }
+        }
+    }
+    
+    // Reservoir sampling keeps the sample uniform over every published post
+    private void sample(String slug, SplittableRandom random) {
+        long seen = sampleCounter.incrementAndGet();
+        synchronized (sampleSlugs) {
+            if (sampleSlugs.size() < SAMPLE_SLUGS) {
+                sampleSlugs.add(slug);
+            } else {
+                long slot = random.nextLong(seen);
+                if (slot < SAMPLE_SLUGS) {
+                    sampleSlugs.set((int) slot, slug);
+                }
+            }
+        }
+    }
+    
+    private static String title(SplittableRandom random, long n) {
+        StringBuilder title = new StringBuilder();
+        int words = 6 + random.nextInt(12);
+        for (int i = 0; i < words; i++) {
+            title.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return title.append(' ').append(n).toString();
+    }
+    
+    // Quill-style HTML, mostly 2-10 KB with a long tail of large articles
+    private static String content(SplittableRandom random) {
+        int paragraphs = random.nextInt(100) < 95 ? 4 + random.nextInt(20) : 60 + random.nextInt(200);
+        StringBuilder html = new StringBuilder(paragraphs * 400);
+        for (int p = 0; p < paragraphs; p++) {
+            if (p % 6 == 0) {
+                html.append("<h2>").append(WORDS[random.nextInt(WORDS.length)]).append(' ')
+                        .append(WORDS[random.nextInt(WORDS.length)]).append("</h2>");
+            }
+            html.append("<p>");
+            int words = 30 + random.nextInt(50);
+            for (int w = 0; w < words; w++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                if (w % 17 == 5) {
+                    html.append(" <strong>").append(word).append("</strong>");
+                } else {
+                    html.append(' ').append(word);
+                }
+            }
+            html.append(".</p>");
+        }
+        return html.toString();
+    }
+    
+    private static String status(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 88) {
+            return "PUBLISHED";
+        }
+        if (roll < 95) {
+            return "DRAFT";
+        }
+        return roll < 98 ? "PENDING" : "REJECTED";
+    }
+    
+    private static boolean exists(Connection connection, String username) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement("SELECT 1 FROM users WHERE username = ?")) {
+            query.setString(1, username);
+            try (ResultSet rows = query.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+    
+    private static void executeBatch(PreparedStatement insert, List<Long> ids) throws SQLException {
+        insert.executeBatch();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getLong(1));
+            }
+        }
+    }
+    
+    // Ranks 0..n-1 drawn with probability proportional to 1 / (rank + 1)^exponent
+    private static class Zipf {
+        private final double[] cumulative;
+    
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+    
+        int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
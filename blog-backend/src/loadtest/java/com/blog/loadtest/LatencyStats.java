@@ -0,0 +1,69 @@
+package com.blog.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Every latency of one operation, kept raw so percentiles are exact. Not thread-safe: each
+// worker records into its own instance and they are merged at the end.
+public class LatencyStats {
+    
+    private final Duration duration;
+    private long[] latencies = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+    
+    LatencyStats(Duration duration) {
+        this.duration = duration;
+    }
+    
+    // status -1 means the request failed without a response
+    void record(long nanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        statuses.merge(status, 1, Integer::sum);
+    }
+    
+    void merge(LatencyStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public double getThroughput() {
+        return count / (duration.toMillis() / 1000.0);
+    }
+    
+    // Requests answered with 2xx or 304
+    public int getSuccesses() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() == 304 || (entry.getKey() >= 200 && entry.getKey() < 300))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+    
+    public Map<Integer, Integer> getStatuses() {
+        return statuses;
+    }
+    
+    // Milliseconds at the given percentile (0-100) of the recorded latencies
+    public double percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,210 @@
+package com.blog.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-model HTTP load: each worker sends its next request as soon as the previous one
+// answered, choosing the operation from a weighted mix. Workers run on virtual threads when
+// the JDK has them (21+), on platform threads otherwise.
+public class LoadDriver {
+    
+    public enum Operation {
+        FEED,
+        CATEGORY,
+        DETAIL,
+        SEARCH,
+        LOGIN,
+        WRITE
+    }
+    
+    private final String baseUrl;
+    private final Map<Operation, Integer> mix;
+    private final List<String> slugs;
+    private final List<String> categorySlugs;
+    private final List<String> usernames;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    
+    // Author tokens for the write operation, logged in once up front
+    private final List<String> tokens = new ArrayList<>();
+    
+    public LoadDriver(String baseUrl, Map<Operation, Integer> mix, List<String> slugs,
+                      List<String> categorySlugs, List<String> usernames) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.slugs = slugs;
+        this.categorySlugs = categorySlugs;
+        this.usernames = usernames;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    // "feed=40,detail=30,search=10" -> weights per operation; unlisted operations are not sent
+    public static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+    
+    public Map<Operation, LatencyStats> run(int workers, Duration warmup, Duration duration) throws Exception {
+        if (mix.getOrDefault(Operation.WRITE, 0) > 0) {
+            for (String username : usernames.subList(0, Math.min(10, usernames.size()))) {
+                tokens.add(objectMapper.readTree(login(username).body()).path("token").asText());
+            }
+        }
+    
+        if (!warmup.isZero()) {
+            System.out.printf("Warming up for %d s%n", warmup.toSeconds());
+            runWorkers(workers, warmup);
+        }
+        System.out.printf("Running %d workers for %d s%n", workers, duration.toSeconds());
+        return runWorkers(workers, duration);
+    }
+    
+    private Map<Operation, LatencyStats> runWorkers(int workers, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = newWorkerExecutor();
+        try {
+            List<Future<Map<Operation, LatencyStats>>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                long seed = i;
+                results.add(executor.submit(() -> work(new SplittableRandom(seed), deadline, duration)));
+            }
+    
+            Map<Operation, LatencyStats> merged = new LinkedHashMap<>();
+            for (Future<Map<Operation, LatencyStats>> result : results) {
+                result.get().forEach((operation, stats) ->
+                        merged.computeIfAbsent(operation, key -> new LatencyStats(duration)).merge(stats));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Map<Operation, LatencyStats> work(SplittableRandom random, long deadline, Duration duration) {
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+    
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(random, total);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = send(operation, random).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            stats.computeIfAbsent(operation, key -> new LatencyStats(duration))
+                    .record(System.nanoTime() - start, status);
+        }
+        return stats;
+    }
+    
+    private Operation pick(SplittableRandom random, int total) {
+        int roll = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+    
+    private HttpResponse<byte[]> send(Operation operation, SplittableRandom random)
+            throws IOException, InterruptedException {
+        return switch (operation) {
+            // Readers mostly stay on the first pages
+            case FEED -> get("/api/posts?page=" + (random.nextInt(10) < 8 ? random.nextInt(3) : random.nextInt(50)));
+            case CATEGORY -> get("/api/categories/" + categorySlugs.get(skewed(random, categorySlugs.size()))
+                    + "/posts?page=" + random.nextInt(3));
+            case DETAIL -> get("/api/posts/" + slugs.get(skewed(random, slugs.size())));
+            case SEARCH -> get("/api/posts/search?q=" + URLEncoder.encode(
+                    DataGenerator.WORDS[random.nextInt(DataGenerator.WORDS.length)], StandardCharsets.UTF_8));
+            case LOGIN -> login(usernames.get(random.nextInt(usernames.size())));
+            case WRITE -> write(random);
+        };
+    }
+    
+    // Index skewed towards the front of the list, so a few items get most of the traffic
+    private static int skewed(SplittableRandom random, int size) {
+        double uniform = random.nextDouble();
+        return Math.min(size - 1, (int) (size * uniform * uniform * uniform));
+    }
+    
+    private HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+    
+    private HttpResponse<byte[]> login(String username) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "emailOrUsername", username,
+                "password", DataGenerator.PASSWORD));
+        return post("/api/auth/login", body, null);
+    }
+    
+    private HttpResponse<byte[]> write(SplittableRandom random) throws IOException, InterruptedException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20 + random.nextInt(200); i++) {
+            content.append(i % 40 == 0 ? "<p>" : " ").append(DataGenerator.WORDS[random.nextInt(DataGenerator.WORDS.length)]);
+        }
+        String body = objectMapper.writeValueAsString(Map.of(
+                "title", "Load test " + DataGenerator.WORDS[random.nextInt(DataGenerator.WORDS.length)] + " " + random.nextLong(),
+                "content", content.append("</p>").toString(),
+                "categoryId", 1,
+                "tags", List.of(DataGenerator.WORDS[random.nextInt(DataGenerator.WORDS.length)], "loadtest"),
+                "status", "PUBLISHED"));
+        return post("/api/posts", body, tokens.get(random.nextInt(tokens.size())));
+    }
+    
+    private HttpResponse<byte[]> post(String path, String body, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+    
+    // Executors.newVirtualThreadPerTaskExecutor() is Java 21; the backend still targets 17
+    private static ExecutorService newWorkerExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+    
+}
@@ -0,0 +1,123 @@
+package com.blog.loadtest;
+
+import com.blog.BlogApplication;
+import com.blog.cache.SlugIndexes;
+import com.blog.related.RelatedPostService;
+import com.blog.search.PostSearchService;
+import com.blog.service.ContentBackfill;
+import com.blog.service.CounterService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Starts the API in-process on a random port, bulk-loads a dataset, replays a request mix
+// against it and prints throughput and latency percentiles per operation. Needs no network.
+// Arguments are key=value: posts, workers, warmup and duration (seconds), mix, db-url,
+// db-user, db-password. Without db-url it runs on an in-memory H2 database. Arguments starting
+// with -- are passed to the application, e.g. --blog.concurrency-limit.enabled=false.
+public class LoadTest {
+    
+    private static final String DEFAULT_MIX = "feed=35,category=10,detail=30,search=10,login=5,write=10";
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator > 0 && separator < arg.length() - 1) {
+                settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+    
+        long posts = Long.parseLong(settings.getOrDefault("posts", "100000"));
+        int workers = Integer.parseInt(settings.getOrDefault("workers", "64"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(settings.getOrDefault("warmup", "15")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(settings.getOrDefault("duration", "60")));
+        Map<LoadDriver.Operation, Integer> mix = LoadDriver.parseMix(settings.getOrDefault("mix", DEFAULT_MIX));
+    
+        try (ConfigurableApplicationContext context = start(settings, appArgs)) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            DataGenerator generator = new DataGenerator(dataSource, Runtime.getRuntime().availableProcessors());
+            if (posts > 0) {
+                generator.generate(posts);
+            }
+            // The generator bypassed the write paths that keep these up to date
+            context.getBean(CounterService.class).reconcile();
+            context.getBean(PostSearchService.class).rebuild();
+            context.getBean(SlugIndexes.class).reload();
+            context.getBean(ContentBackfill.class).backfill();
+            context.getBean(RelatedPostService.class).rebuild();
+    
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            List<String> slugs = generator.getSampleSlugs().isEmpty()
+                    ? jdbcTemplate.queryForList("SELECT slug FROM posts WHERE status = 'PUBLISHED' ORDER BY id LIMIT 20000", String.class)
+                    : new ArrayList<>(generator.getSampleSlugs());
+            List<String> categorySlugs = jdbcTemplate.queryForList("SELECT slug FROM categories ORDER BY id", String.class);
+            List<String> usernames = generator.getUsernames().isEmpty()
+                    ? jdbcTemplate.queryForList("SELECT username FROM users WHERE username LIKE 'loaduser%' ORDER BY id LIMIT 100", String.class)
+                    : generator.getUsernames();
+    
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadDriver driver = new LoadDriver(baseUrl, mix, slugs, categorySlugs, usernames);
+            report(driver.run(workers, warmup, duration));
+        }
+    }
+    
+    private static ConfigurableApplicationContext start(Map<String, String> settings, List<String> appArgs) {
+        String dbUrl = settings.get("db-url");
+        List<String> properties = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--jwt.secret=load-test-secret-load-test-secret-0123456789",
+                "--cors.allowed-origins=http://localhost:3000",
+                // Every request comes from one address, per-IP limits would reject nearly all of them
+                "--blog.rate-limit.enabled=false",
+                "--logging.level.com.blog.metrics=ERROR"));
+    
+        if (dbUrl == null) {
+            properties.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.sql.init.mode=always",
+                    "--spring.jpa.defer-datasource-initialization=true"));
+        } else {
+            properties.addAll(List.of(
+                    "--spring.datasource.url=" + dbUrl,
+                    "--spring.datasource.username=" + settings.getOrDefault("db-user", ""),
+                    "--spring.datasource.password=" + settings.getOrDefault("db-password", "")));
+        }
+        // Later arguments win, so --key=value overrides the defaults above
+        properties.addAll(appArgs);
+        return SpringApplication.run(BlogApplication.class, properties.toArray(new String[0]));
+    }
+    
+    private static void report(Map<LoadDriver.Operation, LatencyStats> results) {
+        System.out.printf("%n%-10s %9s %9s %7s %9s %9s %9s %9s %9s  %s%n",
+                "Operation", "Requests", "Req/s", "OK %", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "Statuses");
+        long total = 0;
+        double throughput = 0;
+        for (Map.Entry<LoadDriver.Operation, LatencyStats> entry : results.entrySet()) {
+            LatencyStats stats = entry.getValue();
+            total += stats.getCount();
+            throughput += stats.getThroughput();
+            System.out.printf("%-10s %9d %9.1f %7.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    entry.getKey().name().toLowerCase(), stats.getCount(), stats.getThroughput(),
+                    100.0 * stats.getSuccesses() / Math.max(1, stats.getCount()),
+                    stats.percentile(50), stats.percentile(90), stats.percentile(99), stats.percentile(99.9),
+                    stats.percentile(100), stats.getStatuses());
+        }
+        System.out.printf("%-10s %9d %9.1f%n", "total", total, throughput);
+    }
+}
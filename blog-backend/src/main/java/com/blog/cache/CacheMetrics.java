@@ -0,0 +1,40 @@
+package com.blog.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Exports every MonitoredCache with the standard cache.* meter names
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics implements MeterBinder {
+    
+    private final List<MonitoredCache> caches;
+    
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (MonitoredCache cache : caches) {
+            String name = cache.getName();
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().hitCount())
+                    .tags("cache", name, "result", "hit")
+                    .description("Cache lookups that found a value")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().missCount())
+                    .tags("cache", name, "result", "miss")
+                    .description("Cache lookups that had to load")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictionCount())
+                    .tags("cache", name)
+                    .register(registry);
+            Gauge.builder("cache.size", cache, MonitoredCache::size)
+                    .tags("cache", name)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.blog.cache;
+
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.service.ContentPipeline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Version counters behind the ETags of feeds, categories and tags
+@Component
+public class ContentVersions {
+    
+    // Seeded from the clock so validators issued before a restart never match newer content
+    private final AtomicLong posts = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong categories = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong tags = new AtomicLong(System.currentTimeMillis());
+    
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final CacheControl publicCacheControl;
+    
+    public ContentVersions(@Value("${blog.http.shared-max-age:60s}") Duration sharedMaxAge) {
+        // Browsers revalidate every time (cheap 304s), shared caches such as a CDN may hold the response
+        this.publicCacheControl = CacheControl.maxAge(Duration.ZERO)
+                .cachePublic()
+                .sMaxAge(sharedMaxAge);
+    }
+    
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        posts.incrementAndGet();
+        // Tags are created through post writes only
+        tags.incrementAndGet();
+    }
+    
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.incrementAndGet();
+    }
+    
+    // Any post or category change may shift every feed page
+    public String feedEtag() {
+        return "\"f" + posts.get() + "-" + categories.get() + "\"";
+    }
+    
+    public String categoriesEtag() {
+        return "\"c" + categories.get() + "\"";
+    }
+    
+    public String tagsEtag() {
+        return "\"t" + tags.get() + "\"";
+    }
+    
+    // Category names are embedded in the response, so their version is part of the post validator.
+    // So is the pipeline version: re-rendering changes the body without touching updatedAt.
+    public String postEtag(Long id, LocalDateTime updatedAt) {
+        return "\"p" + id + "-" + ChronoUnit.MICROS.between(EPOCH, updatedAt) + "-" + categories.get()
+                + "-r" + ContentPipeline.VERSION + "\"";
+    }
+    
+    public long lastModified(LocalDateTime updatedAt) {
+        return toEpochMilli(updatedAt);
+    }
+    
+    public CacheControl publicCacheControl() {
+        return publicCacheControl;
+    }
+    
+    // Answers 304 before the body supplier runs, so neither the query nor serialization happens
+    public <T> ResponseEntity<T> conditionalGet(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(publicCacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(publicCacheControl)
+                .body(body.get());
+    }
+    
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.MILLIS).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,107 @@
+package com.blog.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Serves the first feed pages straight from FeedSnapshots; everything else falls through to the controllers
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedSnapshotFilter extends OncePerRequestFilter {
+    
+    private static final String HOME_FEED = "/api/posts";
+    private static final Pattern CATEGORY_FEED = Pattern.compile("^/api/categories/([^/]+)/posts$");
+    private static final Pattern TAG_FEED = Pattern.compile("^/api/tags/([^/]+)/posts$");
+    
+    private final FeedSnapshots feedSnapshots;
+    private final ContentVersions contentVersions;
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || request.getParameter("cursor") != null;
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        FeedSnapshots.Feed feed = resolveFeed(request.getRequestURI().substring(request.getContextPath().length()));
+        Integer page = parsePage(request.getParameter("page"));
+        
+        if (feed == null || page == null || !feedSnapshots.covers(page)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        // Read the ETag before the snapshot: a snapshot is never older than the version it is served under
+        String etag = contentVersions.feedEtag();
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, contentVersions.publicCacheControl().getHeaderValue());
+            return;
+        }
+        
+        byte[] json;
+        try {
+            json = feedSnapshots.get(feed, page);
+        } catch (RuntimeException e) {
+            log.warn("Feed snapshot unavailable for {}: {}", feed, e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentVersions.publicCacheControl().getHeaderValue());
+        response.setContentLength(json.length);
+        response.getOutputStream().write(json);
+    }
+    
+    private static FeedSnapshots.Feed resolveFeed(String path) {
+        if (HOME_FEED.equals(path)) {
+            return FeedSnapshots.Feed.home();
+        }
+        
+        Matcher category = CATEGORY_FEED.matcher(path);
+        if (category.matches()) {
+            return FeedSnapshots.Feed.category(category.group(1));
+        }
+        
+        Matcher tag = TAG_FEED.matcher(path);
+        if (tag.matches()) {
+            return FeedSnapshots.Feed.tag(tag.group(1));
+        }
+        
+        return null;
+    }
+    
+    // Same default as the controllers; anything unparsable is left to them
+    private static Integer parsePage(String page) {
+        if (page == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(page);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.blog.cache;
+
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.repository.TagRepository;
+import com.blog.service.PostService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// First pages of the home, category and tag feeds, kept as immutable pre-serialized JSON
+@Slf4j
+@Component
+public class FeedSnapshots implements MonitoredCache {
+
+    public enum FeedType {
+        HOME,
+        CATEGORY,
+        TAG
+    }
+
+    @lombok.Value
+    public static class Feed {
+        FeedType type;
+        String slug; // null for HOME
+
+        public static Feed home() {
+            return new Feed(FeedType.HOME, null);
+        }
+
+        public static Feed category(String slug) {
+            return new Feed(FeedType.CATEGORY, slug);
+        }
+
+        public static Feed tag(String slug) {
+            return new Feed(FeedType.TAG, slug);
+        }
+    }
+
+    @lombok.Value
+    private static class PageKey {
+        Feed feed;
+        int page;
+    }
+
+    private final PostService postService;
+    private final SlugIndexes slugIndexes;
+    private final TagRepository tagRepository;
+    private final ObjectMapper objectMapper;
+    private final int pages;
+    private final long debounceMillis;
+    private final long maxDelayMillis;
+
+    private final Cache<PageKey, byte[]> snapshots;
+    // Feeds whose snapshots were dropped and are waiting for the debounced background rebuild
+    private final Set<Feed> dirty = ConcurrentHashMap.newKeySet();
+    // Bumped on every invalidation so a load that raced a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feed-snapshots");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> scheduledRebuild;
+    private long firstDirtyAt;
+
+    public FeedSnapshots(
+            PostService postService,
+            SlugIndexes slugIndexes,
+            TagRepository tagRepository,
+            ObjectMapper objectMapper,
+            @Value("${blog.feed-snapshots.pages:3}") int pages,
+            @Value("${blog.feed-snapshots.max-bytes:16777216}") long maxBytes,
+            @Value("${blog.feed-snapshots.debounce:500ms}") Duration debounce) {
+        this.postService = postService;
+        this.slugIndexes = slugIndexes;
+        this.tagRepository = tagRepository;
+        this.objectMapper = objectMapper;
+        this.pages = pages;
+        this.debounceMillis = debounce.toMillis();
+        this.maxDelayMillis = debounce.toMillis() * 10;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((PageKey key, byte[] json) -> json.length)
+                .recordStats()
+                .build();
+    }
+
+    public boolean covers(int page) {
+        return page >= 0 && page < pages;
+    }
+
+    // Serves a snapshot, loading it on the request thread only the first time the feed is seen.
+    // The empty page of an unknown category or tag is not kept, so made-up slugs cannot fill the cache.
+    public byte[] get(Feed feed, int page) {
+        PageKey key = new PageKey(feed, page);
+        byte[] json = snapshots.getIfPresent(key);
+        if (json != null) {
+            return json;
+        }
+        if (!exists(feed)) {
+            return render(feed, page);
+        }
+
+        long startGeneration = generation.get();
+        json = render(feed, page);
+        store(key, json, startGeneration);
+        return json;
+    }
+
+    // Must run before ContentVersions bumps the ETag, so a new ETag never fronts an old snapshot
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (!event.isPublicChange()) {
+            return;
+        }
+
+        Set<Feed> feeds = new HashSet<>();
+        feeds.add(Feed.home());
+        event.getCategorySlugs().forEach(slug -> feeds.add(Feed.category(slug)));
+        event.getTagSlugs().forEach(slug -> feeds.add(Feed.tag(slug)));
+        invalidate(feeds);
+    }
+
+    // Category names are part of every feed page
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Set<Feed> feeds = new HashSet<>();
+        snapshots.asMap().keySet().forEach(key -> feeds.add(key.getFeed()));
+        invalidate(feeds);
+    }
+
+    @Override
+    public String getName() {
+        return "feed-snapshots";
+    }
+
+    @Override
+    public CacheStats stats() {
+        return snapshots.stats();
+    }
+
+    @Override
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+
+    private void invalidate(Set<Feed> feeds) {
+        List<Feed> hot = new ArrayList<>();
+
+        synchronized (lock) {
+            generation.incrementAndGet();
+            for (Feed feed : feeds) {
+                boolean cached = false;
+                for (int page = 0; page < pages; page++) {
+                    cached |= snapshots.asMap().remove(new PageKey(feed, page)) != null;
+                }
+                // Only feeds somebody actually read get rebuilt eagerly
+                if (cached) {
+                    hot.add(feed);
+                }
+            }
+            dirty.addAll(hot);
+        }
+
+        if (!hot.isEmpty()) {
+            scheduleRebuild();
+        }
+    }
+
+    // Stores only if no invalidation happened since rendering started, so a stale page is never kept
+    private boolean store(PageKey key, byte[] json, long startGeneration) {
+        synchronized (lock) {
+            if (generation.get() != startGeneration || dirty.contains(key.getFeed())) {
+                return false;
+            }
+            snapshots.put(key, json);
+            return true;
+        }
+    }
+
+    // Trailing debounce, capped so a steady stream of edits cannot postpone the rebuild forever
+    private synchronized void scheduleRebuild() {
+        long now = System.currentTimeMillis();
+        if (scheduledRebuild == null || scheduledRebuild.isDone()) {
+            firstDirtyAt = now;
+        } else if (now - firstDirtyAt < maxDelayMillis) {
+            scheduledRebuild.cancel(false);
+        } else {
+            return;
+        }
+        scheduledRebuild = scheduler.schedule(this::rebuildDirty, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuildDirty() {
+        List<Feed> feeds = new ArrayList<>(dirty);
+
+        for (Feed feed : feeds) {
+            dirty.remove(feed);
+            try {
+                for (int page = 0; page < pages; page++) {
+                    long startGeneration = generation.get();
+                    byte[] json = render(feed, page);
+                    // Raced with another write: try again in the next round
+                    if (!store(new PageKey(feed, page), json, startGeneration)) {
+                        dirty.add(feed);
+                        scheduleRebuild();
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebuild feed snapshot {}: {}", feed, e.getMessage());
+            }
+        }
+    }
+
+    private boolean exists(Feed feed) {
+        return switch (feed.getType()) {
+            case HOME -> true;
+            case CATEGORY -> slugIndexes.categories().findId(feed.getSlug()).isPresent();
+            case TAG -> tagRepository.existsBySlug(feed.getSlug());
+        };
+    }
+
+    private byte[] render(Feed feed, int page) {
+        Object response = switch (feed.getType()) {
+            case HOME -> postService.getPublishedPosts(page);
+            case CATEGORY -> postService.getPostsByCategory(feed.getSlug(), page);
+            case TAG -> postService.getPostsByTag(feed.getSlug(), page);
+        };
+
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize feed " + feed, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.blog.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Implemented by every in-process cache; CacheMetrics and /api/admin/cache/stats pick them up
+public interface MonitoredCache {
+    
+    String getName();
+    
+    CacheStats stats();
+    
+    long size();
+}
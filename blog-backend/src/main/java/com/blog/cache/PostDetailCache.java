@@ -0,0 +1,95 @@
+package com.blog.cache;
+
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.PostStatus;
+import com.blog.event.PostChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Finished PostResponse objects by slug. Only PUBLISHED posts are ever cached.
+@Component
+public class PostDetailCache implements MonitoredCache {
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+    
+    private final Cache<String, PostResponse> cache;
+    
+    public PostDetailCache(
+            @Value("${blog.cache.post-detail.max-bytes:67108864}") long maxBytes,
+            @Value("${blog.cache.post-detail.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String slug, PostResponse post) -> weigh(post))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+    
+    // Loads through the cache; non-published posts are returned but not stored
+    public PostResponse get(String slug, Function<String, PostResponse> loader) {
+        PostResponse[] uncached = new PostResponse[1];
+        
+        PostResponse cached = cache.get(slug, key -> {
+            PostResponse post = loader.apply(key);
+            if (post.getStatus() != PostStatus.PUBLISHED) {
+                uncached[0] = post;
+                return null;
+            }
+            return post;
+        });
+        
+        return cached != null ? cached : uncached[0];
+    }
+    
+    public PostResponse getIfPresent(String slug) {
+        return cache.getIfPresent(slug);
+    }
+    
+    // Runs after commit; invalidate waits for an in-flight load of the same slug, so stale rows cannot stick.
+    // Both slugs come from the event, so a rename evicts the old one as well
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        Stream.of(event.getBefore(), event.getAfter())
+                .filter(Objects::nonNull)
+                .map(PostChangedEvent.PostState::getSlug)
+                .distinct()
+                .forEach(cache::invalidate);
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    @Override
+    public String getName() {
+        return "post-detail";
+    }
+    
+    @Override
+    public CacheStats stats() {
+        return cache.stats();
+    }
+    
+    @Override
+    public long size() {
+        return cache.estimatedSize();
+    }
+    
+    private static int weigh(PostResponse post) {
+        long chars = length(post.getContent()) + length(post.getHtml()) + length(post.getTitle()) + length(post.getExcerpt());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + chars * 2);
+    }
+    
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
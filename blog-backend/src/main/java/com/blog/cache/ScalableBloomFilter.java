@@ -0,0 +1,128 @@
+package com.blog.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter that grows instead of degrading: once a stage holds its capacity, a new stage
+// twice as large with half the false positive rate takes the new entries. Stages start at half
+// the requested rate, so the compound rate stays under it. Entries cannot be removed.
+// Reads are lock-free.
+public class ScalableBloomFilter {
+    
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+    
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        stages.add(new Stage(Math.max(64, initialCapacity), falsePositiveRate * TIGHTENING));
+    }
+    
+    public void add(String value) {
+        long hash = hash(value);
+        Stage stage = stages.get(stages.size() - 1);
+        if (stage.isFull()) {
+            stage = grow(stage);
+        }
+        stage.add(hash);
+    }
+    
+    // false means certainly absent
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public long bitSize() {
+        return stages.stream().mapToLong(stage -> stage.bits).sum();
+    }
+    
+    private synchronized Stage grow(Stage full) {
+        Stage last = stages.get(stages.size() - 1);
+        if (last != full) {
+            return last;
+        }
+        Stage next = new Stage(full.capacity * GROWTH, full.falsePositiveRate * TIGHTENING);
+        stages.add(next);
+        return next;
+    }
+    
+    // 64-bit FNV-1a finished with the MurmurHash3 mixer, String.hashCode is too weak for k probes
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+    
+    private static final class Stage {
+    
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bits;
+        private final int probes;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+    
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            double ln2 = Math.log(2);
+            long size = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.bits = Math.max(64, (size + 63) / 64 * 64);
+            this.probes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+            this.words = new AtomicLongArray((int) (bits / 64));
+        }
+    
+        private boolean isFull() {
+            return count.get() >= capacity;
+        }
+    
+        private void add(long hash) {
+            boolean changed = false;
+            for (int i = 0; i < probes; i++) {
+                long bit = index(hash, i);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                long previous = words.getAndUpdate(word, current -> current | mask);
+                changed |= (previous & mask) == 0;
+            }
+            // Duplicates set no new bit and do not use up capacity
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+    
+        private boolean mightContain(long hash) {
+            for (int i = 0; i < probes; i++) {
+                long bit = index(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    
+        // Double hashing: probe i is h1 + i * h2 over the halves of one 64-bit hash
+        private long index(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            long combined = (long) h1 + (long) i * h2;
+            return Math.floorMod(combined, bits);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.blog.cache;
+
+import com.blog.dto.projection.SlugId;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Every slug of one entity type mapped to its id, with a Bloom filter in front so most unknown
+// slugs are rejected before touching the map. Kept current by SlugIndexes; until the first load
+// completes, lookups go to the database through the fallback.
+//
+// A hit may be stale for a moment (a rename or delete racing a load), so callers load by id and
+// compare the slug. A miss is authoritative for writes made through this instance; rows written
+// around it (another instance, a bulk import) are only seen after the next load.
+public class SlugIndex {
+    
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+    
+    private final Function<String, Optional<Long>> fallback;
+    private final Object loadLock = new Object();
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private volatile ScalableBloomFilter filter = new ScalableBloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile boolean ready = false;
+    // Slugs written while a load is reading rows; null when not loading
+    private Set<String> writtenDuringLoad;
+    
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    
+    public SlugIndex(Function<String, Optional<Long>> fallback) {
+        this.fallback = fallback;
+    }
+    
+    public Optional<Long> findId(String slug) {
+        if (!ready) {
+            return fallback.apply(slug);
+        }
+        if (!filter.mightContain(slug)) {
+            filtered.increment();
+            return Optional.empty();
+        }
+        
+        Long id = ids.get(slug);
+        (id == null ? missed : hits).increment();
+        return Optional.ofNullable(id);
+    }
+    
+    // Filter first: a reader must never see the map entry rejected by the filter
+    public synchronized void put(String slug, Long id) {
+        filter.add(slug);
+        ids.put(slug, id);
+        if (writtenDuringLoad != null) {
+            writtenDuringLoad.add(slug);
+        }
+    }
+    
+    // Only if the slug still points at this id, a later write may have taken it over
+    public synchronized void remove(String slug, Long id) {
+        ids.remove(slug, id);
+        if (writtenDuringLoad != null) {
+            writtenDuringLoad.add(slug);
+        }
+    }
+    
+    // Replaces the contents with the rows, which may be read at any time. Slugs written while they
+    // were read win over the rows; the filter is sized for the rows and swapped in together with
+    // whatever was put meanwhile. Loads run one at a time.
+    public void load(Supplier<Collection<SlugId>> reader) {
+        synchronized (loadLock) {
+            loadRows(reader);
+        }
+    }
+    
+    private void loadRows(Supplier<Collection<SlugId>> reader) {
+        synchronized (this) {
+            writtenDuringLoad = new HashSet<>();
+        }
+        
+        try {
+            Collection<SlugId> rows = reader.get();
+            Map<String, Long> loadedIds = new HashMap<>(rows.size() * 2);
+            ScalableBloomFilter loaded = new ScalableBloomFilter(
+                    Math.max(MIN_CAPACITY, rows.size() * 2L), FALSE_POSITIVE_RATE);
+            for (SlugId row : rows) {
+                loaded.add(row.getSlug());
+                loadedIds.put(row.getSlug(), row.getId());
+            }
+            
+            synchronized (this) {
+                ids.keySet().removeIf(slug -> !loadedIds.containsKey(slug) && !writtenDuringLoad.contains(slug));
+                loadedIds.forEach((slug, id) -> {
+                    if (!writtenDuringLoad.contains(slug)) {
+                        ids.put(slug, id);
+                    }
+                });
+                ids.keySet().forEach(loaded::add);
+                filter = loaded;
+                ready = true;
+            }
+        } finally {
+            synchronized (this) {
+                writtenDuringLoad = null;
+            }
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public int size() {
+        return ids.size();
+    }
+    
+    public long getFilterBits() {
+        return filter.bitSize();
+    }
+    
+    public long getFiltered() {
+        return filtered.sum();
+    }
+    
+    public long getMissed() {
+        return missed.sum();
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+}
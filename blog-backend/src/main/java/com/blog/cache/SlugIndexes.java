@@ -0,0 +1,111 @@
+package com.blog.cache;
+
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Slug routing for posts and categories: loaded at startup, kept current by the write events and
+// reloaded periodically to pick up rows written around this instance (other instances, imports).
+// Unknown slugs are answered without a query, known ones by primary key.
+@Slf4j
+@Component
+public class SlugIndexes {
+    
+    private final PostRepository postRepository;
+    private final CategoryRepository categoryRepository;
+    private final SlugIndex posts;
+    private final SlugIndex categories;
+    
+    // Meters are registered here rather than through MeterBinder: @Async would proxy the interface
+    public SlugIndexes(PostRepository postRepository, CategoryRepository categoryRepository,
+                       MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.categoryRepository = categoryRepository;
+        this.posts = new SlugIndex(postRepository::findIdBySlug);
+        this.categories = new SlugIndex(categoryRepository::findIdBySlug);
+        bind(meterRegistry, "posts", posts);
+        bind(meterRegistry, "categories", categories);
+    }
+    
+    public SlugIndex posts() {
+        return posts;
+    }
+    
+    public SlugIndex categories() {
+        return categories;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+    
+    // Until the interval passes, another instance's new slugs answer 404 here
+    @Scheduled(fixedDelayString = "${blog.slugs.reload-interval:PT5M}",
+               initialDelayString = "${blog.slugs.reload-interval:PT5M}")
+    public void reload() {
+        long start = System.currentTimeMillis();
+        categories.load(categoryRepository::findAllSlugIds);
+        posts.load(postRepository::findAllSlugIds);
+        log.info("Slug indexes loaded with {} posts and {} categories in {} ms",
+                posts.size(), categories.size(), System.currentTimeMillis() - start);
+    }
+    
+    // Applied even while a load runs, the load never overwrites these
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        String before = event.getBefore() != null ? event.getBefore().getSlug() : null;
+        String after = event.getAfter() != null ? event.getAfter().getSlug() : null;
+        if (before != null && !before.equals(after)) {
+            posts.remove(before, event.getPostId());
+        }
+        if (after != null) {
+            posts.put(after, event.getPostId());
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getPreviousSlug() != null && !event.getPreviousSlug().equals(event.getSlug())) {
+            categories.remove(event.getPreviousSlug(), event.getCategoryId());
+        }
+        if (event.getSlug() != null) {
+            categories.put(event.getSlug(), event.getCategoryId());
+        }
+    }
+    
+    private static void bind(MeterRegistry registry, String name, SlugIndex index) {
+        Gauge.builder("blog.slugs.size", index, SlugIndex::size)
+                .tag("index", name)
+                .register(registry);
+        Gauge.builder("blog.slugs.filter.bits", index, SlugIndex::getFilterBits)
+                .tag("index", name)
+                .description("Bloom filter size")
+                .register(registry);
+        FunctionCounter.builder("blog.slugs.lookups", index, SlugIndex::getFiltered)
+                .tag("index", name)
+                .tag("outcome", "filtered")
+                .description("Lookups answered by the slug index")
+                .register(registry);
+        FunctionCounter.builder("blog.slugs.lookups", index, SlugIndex::getMissed)
+                .tag("index", name)
+                .tag("outcome", "missed")
+                .register(registry);
+        FunctionCounter.builder("blog.slugs.lookups", index, SlugIndex::getHits)
+                .tag("index", name)
+                .tag("outcome", "hit")
+                .register(registry);
+    }
+}
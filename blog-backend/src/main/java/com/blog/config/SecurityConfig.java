@@ -1,6 +1,7 @@
 package com.blog.config;
 
 import com.blog.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,10 +37,19 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses finish in an async dispatch of a request already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/posts/*/revisions/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/categories/**", "/api/tags/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/feed.xml", "/atom.xml", "/categories/*/feed.xml",
+                                "/categories/*/atom.xml", "/tags/*/feed.xml", "/tags/*/atom.xml",
+                                "/sitemap.xml", "/sitemaps/*").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/images/*/*").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
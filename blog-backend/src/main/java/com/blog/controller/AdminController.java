@@ -1,21 +1,29 @@
 package com.blog.controller;
 
+import com.blog.cache.MonitoredCache;
+import com.blog.dto.response.CacheStatsResponse;
+import com.blog.dto.response.LimiterStatsResponse;
 import com.blog.dto.response.PageResponse;
 import com.blog.dto.response.PostResponse;
 import com.blog.dto.response.StatsResponse;
 import com.blog.dto.response.UserAdminResponse;
 import com.blog.entity.PostStatus;
+import com.blog.ratelimit.ConcurrencyLimiter;
+import com.blog.search.PostSearchService;
 import com.blog.service.AdminService;
 import com.blog.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -25,6 +33,9 @@ public class AdminController {
     
     private final AdminService adminService;
     private final PostService postService;
+    private final PostSearchService postSearchService;
+    private final List<MonitoredCache> caches;
+    private final ConcurrencyLimiter concurrencyLimiter;
     
     @GetMapping("/stats")
     @Operation(summary = "Get dashboard statistics")
@@ -47,6 +58,14 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
     
+    @PostMapping("/users/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Sign a user out everywhere by revoking all issued tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        adminService.revokeTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping("/posts")
     @Operation(summary = "Get all posts (admin view)")
     public ResponseEntity<PageResponse<PostResponse>> getAllPosts(
@@ -61,6 +80,29 @@ public class AdminController {
         return ResponseEntity.ok(postService.approvePost(id));
     }
     
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild the full-text search index from the database")
+    public ResponseEntity<Map<String, Integer>> rebuildSearchIndex() {
+        return ResponseEntity.ok(Map.of("indexedPosts", postSearchService.rebuild()));
+    }
+    
+    @GetMapping("/limiter/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Concurrency limiter state per endpoint group")
+    public ResponseEntity<List<LimiterStatsResponse>> getLimiterStats() {
+        return ResponseEntity.ok(concurrencyLimiter.stats());
+    }
+    
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get in-process cache statistics")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(caches.stream()
+                .map(cache -> CacheStatsResponse.from(cache.getName(), cache.size(), cache.stats()))
+                .collect(Collectors.toList()));
+    }
+    
     @PutMapping("/posts/{id}/reject")
     @Operation(summary = "Reject a post")
     public ResponseEntity<PostResponse> rejectPost(
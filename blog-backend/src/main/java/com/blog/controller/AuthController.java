@@ -3,6 +3,8 @@ package com.blog.controller;
 import com.blog.dto.request.LoginRequest;
 import com.blog.dto.request.RegisterRequest;
 import com.blog.dto.response.AuthResponse;
+import com.blog.ratelimit.RateLimiter;
+import com.blog.security.PasswordHashingExecutor;
 import com.blog.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -19,18 +23,22 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     
     private final AuthService authService;
+    private final PasswordHashingExecutor passwordHashing;
+    private final RateLimiter rateLimiter;
     
+    // BCrypt runs on the password hashing pool, the request thread is released meanwhile
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        return passwordHashing.submit(() -> authService.register(request))
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
     }
     
     @PostMapping("/login")
     @Operation(summary = "Login user")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        rateLimiter.checkAccount("login", request.getEmailOrUsername());
+        return passwordHashing.submit(() -> authService.login(request))
+                .thenApply(ResponseEntity::ok);
     }
 }
@@ -1,7 +1,9 @@
 package com.blog.controller;
 
+import com.blog.cache.ContentVersions;
 import com.blog.dto.request.CategoryRequest;
 import com.blog.dto.response.CategoryResponse;
+import com.blog.dto.response.CursorResponse;
 import com.blog.dto.response.PageResponse;
 import com.blog.dto.response.PostResponse;
 import com.blog.service.CategoryService;
@@ -14,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,19 +28,33 @@ public class CategoryController {
     
     private final CategoryService categoryService;
     private final PostService postService;
+    private final ContentVersions contentVersions;
     
     @GetMapping
     @Operation(summary = "Get all categories (public)")
-    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.categoriesEtag(),
+                () -> categoryService.getAllCategories());
     }
     
     @GetMapping("/{slug}/posts")
     @Operation(summary = "Get posts by category (public)")
     public ResponseEntity<PageResponse<PostResponse>> getPostsByCategory(
             @PathVariable String slug,
-            @RequestParam(defaultValue = "0") int page) {
-        return ResponseEntity.ok(postService.getPostsByCategory(slug, page));
+            @RequestParam(defaultValue = "0") int page,
+            WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.feedEtag(),
+                () -> postService.getPostsByCategory(slug, page));
+    }
+    
+    @GetMapping(value = "/{slug}/posts", params = "cursor")
+    @Operation(summary = "Get posts by category by cursor (public)")
+    public ResponseEntity<CursorResponse<PostResponse>> getPostsByCategoryByCursor(
+            @PathVariable String slug,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.feedEtag(),
+                () -> postService.getPostsByCategory(slug, cursor));
     }
     
     @PostMapping
@@ -0,0 +1,77 @@
+package com.blog.controller;
+
+import com.blog.dto.response.ImageResponse;
+import com.blog.exception.ApiException;
+import com.blog.image.FileSender;
+import com.blog.image.ImageService;
+import com.blog.image.ImageStorage;
+import com.blog.image.ImageVariant;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Images", description = "Image upload and serving")
+public class ImageController {
+    
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    // A URL names one hash and one size, so its bytes never change
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    // The original standing in for a variant that is still being generated
+    private static final String PENDING = "public, max-age=60";
+    
+    private final ImageService imageService;
+    private final ImageStorage imageStorage;
+    
+    @PostMapping(value = "/api/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload a JPEG, PNG or GIF image")
+    public ResponseEntity<ImageResponse> upload(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam("file") MultipartFile file) {
+        ImageService.Upload upload = imageService.upload(file, userDetails.getUsername());
+        return ResponseEntity.status(upload.isCreated() ? HttpStatus.CREATED : HttpStatus.OK).body(upload.getImage());
+    }
+    
+    @GetMapping("/images/{hash}/{variant}")
+    @Operation(summary = "Serve an uploaded image: original, large or thumbnail (public, supports Range)")
+    public void serve(@PathVariable String hash, @PathVariable String variant,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ImageVariant> size = ImageVariant.fromName(variant);
+        if (!HASH.matcher(hash).matches() || size.isEmpty()) {
+            throw new ApiException.ResourceNotFoundException("Image not found");
+        }
+    
+        Path file = imageStorage.find(hash, size.get()).orElse(null);
+        String cacheControl = IMMUTABLE;
+        if (file == null && size.get() != ImageVariant.ORIGINAL) {
+            file = imageStorage.find(hash, ImageVariant.ORIGINAL).orElse(null);
+            cacheControl = PENDING;
+        }
+        if (file == null) {
+            throw new ApiException.ResourceNotFoundException("Image not found");
+        }
+    
+        String name = file.getFileName().toString();
+        String etag = "\"" + hash.substring(0, 16) + "-" + name.substring(0, name.indexOf('.')) + "\"";
+        FileSender.send(request, response, file, ImageStorage.mediaType(file), etag, cacheControl);
+    }
+}
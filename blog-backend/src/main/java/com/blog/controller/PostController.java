@@ -1,21 +1,43 @@
 package com.blog.controller;
 
+import com.blog.cache.ContentVersions;
+import com.blog.dto.projection.PostValidator;
+import com.blog.dto.projection.RevisionSummary;
 import com.blog.dto.request.PostRequest;
+import com.blog.dto.response.CursorResponse;
 import com.blog.dto.response.PageResponse;
 import com.blog.dto.response.PostResponse;
 import com.blog.entity.PostStatus;
 import com.blog.entity.Role;
 import com.blog.security.UserDetailsServiceImpl;
+import com.blog.related.RelatedPostService;
+import com.blog.revision.RevisionService;
 import com.blog.service.PostService;
+import com.blog.service.PostViewService;
+import com.blog.trending.TrendingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -25,26 +47,93 @@ public class PostController {
     
     private final PostService postService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final ContentVersions contentVersions;
+    private final PostViewService postViewService;
+    private final TrendingService trendingService;
+    private final RelatedPostService relatedPostService;
+    private final RevisionService revisionService;
+    private final ObjectMapper objectMapper;
     
     @GetMapping
     @Operation(summary = "Get all published posts (public)")
     public ResponseEntity<PageResponse<PostResponse>> getPublishedPosts(
-            @RequestParam(defaultValue = "0") int page) {
-        return ResponseEntity.ok(postService.getPublishedPosts(page));
+            @RequestParam(defaultValue = "0") int page,
+            WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.feedEtag(),
+                () -> postService.getPublishedPosts(page));
+    }
+    
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get published posts by cursor (public)")
+    public ResponseEntity<CursorResponse<PostResponse>> getPublishedPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.feedEtag(),
+                () -> postService.getPublishedPosts(cursor));
     }
     
     @GetMapping("/{slug}")
     @Operation(summary = "Get post by slug (public)")
-    public ResponseEntity<PostResponse> getPostBySlug(@PathVariable String slug) {
-        return ResponseEntity.ok(postService.getPostBySlug(slug));
+    public ResponseEntity<PostResponse> getPostBySlug(@PathVariable String slug, WebRequest request) {
+        // Only conditional requests pay for the validator lookup
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<PostValidator> validator = postService.getPostValidator(slug)
+                    .filter(v -> v.getStatus() == PostStatus.PUBLISHED && v.getUpdatedAt() != null);
+            if (validator.isPresent() && request.checkNotModified(
+                    contentVersions.postEtag(validator.get().getId(), validator.get().getUpdatedAt()),
+                    contentVersions.lastModified(validator.get().getUpdatedAt()))) {
+                postViewService.record(validator.get().getId());
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(contentVersions.publicCacheControl())
+                        .build();
+            }
+        }
+        
+        PostResponse post = postService.getPostBySlug(slug);
+        
+        // Never let a shared cache keep a draft
+        if (post.getStatus() != PostStatus.PUBLISHED || post.getUpdatedAt() == null) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(post);
+        }
+        postViewService.record(post.getId());
+        return ResponseEntity.ok()
+                .eTag(contentVersions.postEtag(post.getId(), post.getUpdatedAt()))
+                .lastModified(contentVersions.lastModified(post.getUpdatedAt()))
+                .cacheControl(contentVersions.publicCacheControl())
+                .body(post);
+    }
+    
+    @GetMapping("/popular")
+    @Operation(summary = "Get the most viewed published posts (public)")
+    public ResponseEntity<List<PostResponse>> getPopularPosts() {
+        return ResponseEntity.ok(postViewService.getPopular());
+    }
+    
+    @GetMapping("/trending")
+    @Operation(summary = "Get trending published posts, optionally within a category and/or tag (public)")
+    public ResponseEntity<List<PostResponse>> getTrendingPosts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String tag) {
+        return ResponseEntity.ok(trendingService.getTrending(category, tag));
+    }
+    
+    @GetMapping("/{slug}/related")
+    @Operation(summary = "Get published posts related to a post by shared tags and category (public)")
+    public ResponseEntity<List<PostResponse>> getRelatedPosts(@PathVariable String slug) {
+        return ResponseEntity.ok(relatedPostService.getRelatedPosts(slug));
     }
     
     @GetMapping("/search")
     @Operation(summary = "Search posts (public)")
     public ResponseEntity<PageResponse<PostResponse>> searchPosts(
             @RequestParam String q,
-            @RequestParam(defaultValue = "0") int page) {
-        return ResponseEntity.ok(postService.searchPosts(q, page));
+            @RequestParam(defaultValue = "0") int page,
+            WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.feedEtag(),
+                () -> postService.searchPosts(q, page));
     }
     
     @GetMapping("/my")
@@ -86,6 +175,65 @@ public class PostController {
         return ResponseEntity.noContent().build();
     }
     
+    @GetMapping("/{id}/revisions")
+    @Operation(summary = "List a post's revisions, newest first (streamed)")
+    public ResponseEntity<StreamingResponseBody> getRevisions(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+        revisionService.checkAccess(id, userDetails.getUsername(), isAdmin(userDetails));
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                int before = Integer.MAX_VALUE;
+                List<RevisionSummary> page;
+                do {
+                    page = revisionService.getSummaries(id, before);
+                    for (RevisionSummary revision : page) {
+                        json.writeObject(revision);
+                        before = revision.getNumber();
+                    }
+                    json.flush();
+                } while (page.size() == RevisionService.PAGE_SIZE);
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+    
+    @GetMapping("/{id}/revisions/diff")
+    @Operation(summary = "Unified diff between two revisions of a post (streamed)")
+    public ResponseEntity<StreamingResponseBody> diffRevisions(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id,
+            @RequestParam int from,
+            @RequestParam int to) {
+        revisionService.checkAccess(id, userDetails.getUsername(), isAdmin(userDetails));
+        RevisionService.Revision fromRevision = revisionService.getRevision(id, from);
+        RevisionService.Revision toRevision = revisionService.getRevision(id, to);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            revisionService.writeDiff(fromRevision, toRevision, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "x-diff", StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+    
+    @PostMapping("/{id}/revisions/{number}/restore")
+    @Operation(summary = "Restore a post's title and content from a revision")
+    public ResponseEntity<PostResponse> restoreRevision(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id,
+            @PathVariable int number) {
+        boolean isAdmin = isAdmin(userDetails);
+        return ResponseEntity.ok(postService.restoreRevision(id, number, userDetails.getUsername(), isAdmin));
+    }
+    
     private boolean isAdmin(UserDetails userDetails) {
         return userDetails.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_" + Role.ADMIN.name()));
@@ -0,0 +1,114 @@
+package com.blog.controller;
+
+import com.blog.cache.ContentVersions;
+import com.blog.cache.FeedSnapshots.Feed;
+import com.blog.syndication.SyndicationService;
+import com.blog.syndication.XmlDocument;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+// Feeds and sitemaps for readers and crawlers, outside /api so their URLs stay conventional
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Syndication", description = "RSS/Atom feeds and sitemaps")
+public class SyndicationController {
+    
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+    private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+    private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+    
+    private final SyndicationService syndicationService;
+    private final ContentVersions contentVersions;
+    
+    @GetMapping("/feed.xml")
+    @Operation(summary = "RSS feed of the latest posts")
+    public ResponseEntity<byte[]> rss(WebRequest request) {
+        return feed(SyndicationService.Format.RSS, Feed.home(), request);
+    }
+    
+    @GetMapping("/atom.xml")
+    @Operation(summary = "Atom feed of the latest posts")
+    public ResponseEntity<byte[]> atom(WebRequest request) {
+        return feed(SyndicationService.Format.ATOM, Feed.home(), request);
+    }
+    
+    @GetMapping("/categories/{slug}/feed.xml")
+    @Operation(summary = "RSS feed of the latest posts in a category")
+    public ResponseEntity<byte[]> categoryRss(@PathVariable String slug, WebRequest request) {
+        return feed(SyndicationService.Format.RSS, Feed.category(slug), request);
+    }
+    
+    @GetMapping("/categories/{slug}/atom.xml")
+    @Operation(summary = "Atom feed of the latest posts in a category")
+    public ResponseEntity<byte[]> categoryAtom(@PathVariable String slug, WebRequest request) {
+        return feed(SyndicationService.Format.ATOM, Feed.category(slug), request);
+    }
+    
+    @GetMapping("/tags/{slug}/feed.xml")
+    @Operation(summary = "RSS feed of the latest posts with a tag")
+    public ResponseEntity<byte[]> tagRss(@PathVariable String slug, WebRequest request) {
+        return feed(SyndicationService.Format.RSS, Feed.tag(slug), request);
+    }
+    
+    @GetMapping("/tags/{slug}/atom.xml")
+    @Operation(summary = "Atom feed of the latest posts with a tag")
+    public ResponseEntity<byte[]> tagAtom(@PathVariable String slug, WebRequest request) {
+        return feed(SyndicationService.Format.ATOM, Feed.tag(slug), request);
+    }
+    
+    @GetMapping("/sitemap.xml")
+    @Operation(summary = "Sitemap, or a sitemap index once there are more URLs than one sitemap holds")
+    public ResponseEntity<byte[]> sitemap(WebRequest request) {
+        return sitemap(SyndicationService.SITEMAP, request);
+    }
+    
+    @GetMapping("/sitemaps/{name}.xml")
+    @Operation(summary = "One sitemap listed by the sitemap index")
+    public ResponseEntity<byte[]> sitemapPage(@PathVariable String name, WebRequest request) {
+        return sitemap(name, request);
+    }
+    
+    private ResponseEntity<byte[]> feed(SyndicationService.Format format, Feed feed, WebRequest request) {
+        return serve(syndicationService.getFeed(format, feed),
+                format == SyndicationService.Format.RSS ? RSS : ATOM, request);
+    }
+    
+    private ResponseEntity<byte[]> sitemap(String name, WebRequest request) {
+        return syndicationService.getSitemap(name)
+                .map(document -> serve(document, XML, request))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    // Documents are stored gzipped; the identity encoding is a separate representation with its own ETag
+    private ResponseEntity<byte[]> serve(XmlDocument document, MediaType type, WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? document.getEtag() : document.getEtag().replaceFirst("\"$", "-i\"");
+    
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(contentVersions.publicCacheControl())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+    
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(type)
+                .eTag(etag)
+                .cacheControl(contentVersions.publicCacheControl())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(document.getGzipped());
+        }
+        return response.body(document.inflate());
+    }
+}
@@ -1,5 +1,7 @@
 package com.blog.controller;
 
+import com.blog.cache.ContentVersions;
+import com.blog.dto.response.CursorResponse;
 import com.blog.dto.response.PageResponse;
 import com.blog.dto.response.PostResponse;
 import com.blog.dto.response.TagResponse;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,18 +24,32 @@ public class TagController {
     
     private final TagService tagService;
     private final PostService postService;
+    private final ContentVersions contentVersions;
     
     @GetMapping
     @Operation(summary = "Get all tags (public)")
-    public ResponseEntity<List<TagResponse>> getAllTags() {
-        return ResponseEntity.ok(tagService.getAllTags());
+    public ResponseEntity<List<TagResponse>> getAllTags(WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.tagsEtag(),
+                () -> tagService.getAllTags());
     }
     
     @GetMapping("/{slug}/posts")
     @Operation(summary = "Get posts by tag (public)")
     public ResponseEntity<PageResponse<PostResponse>> getPostsByTag(
             @PathVariable String slug,
-            @RequestParam(defaultValue = "0") int page) {
-        return ResponseEntity.ok(postService.getPostsByTag(slug, page));
+            @RequestParam(defaultValue = "0") int page,
+            WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.feedEtag(),
+                () -> postService.getPostsByTag(slug, page));
+    }
+    
+    @GetMapping(value = "/{slug}/posts", params = "cursor")
+    @Operation(summary = "Get posts by tag by cursor (public)")
+    public ResponseEntity<CursorResponse<PostResponse>> getPostsByTagByCursor(
+            @PathVariable String slug,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        return contentVersions.conditionalGet(request, contentVersions.feedEtag(),
+                () -> postService.getPostsByTag(slug, cursor));
     }
 }
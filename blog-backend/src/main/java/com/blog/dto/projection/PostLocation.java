@@ -0,0 +1,13 @@
+package com.blog.dto.projection;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Sitemap entry of a published post
+@Value
+public class PostLocation {
+    Long id;
+    String slug;
+    LocalDateTime updatedAt;
+}
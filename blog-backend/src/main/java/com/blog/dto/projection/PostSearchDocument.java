@@ -0,0 +1,18 @@
+package com.blog.dto.projection;
+
+import com.blog.entity.PostStatus;
+import com.blog.service.ContentUtil;
+import lombok.Value;
+
+@Value
+public class PostSearchDocument {
+    Long id;
+    String title;
+    String plainText;
+    String content;
+    PostStatus status;
+    
+    public String getText() {
+        return plainText != null ? plainText : ContentUtil.toPlainText(content);
+    }
+}
@@ -0,0 +1,26 @@
+package com.blog.dto.projection;
+
+import com.blog.entity.PostStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// List-view projection of a post; never selects the content column
+@Value
+public class PostSummary {
+    Long id;
+    String title;
+    String slug;
+    String excerpt;
+    String featuredImage;
+    PostStatus status;
+    Integer wordCount;
+    Integer readingTime;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    Long authorId;
+    String authorUsername;
+    Long categoryId;
+    String categoryName;
+    String categorySlug;
+}
@@ -0,0 +1,11 @@
+package com.blog.dto.projection;
+
+import lombok.Value;
+
+@Value
+public class PostTagSummary {
+    Long postId;
+    Long id;
+    String name;
+    String slug;
+}
@@ -0,0 +1,15 @@
+package com.blog.dto.projection;
+
+import com.blog.entity.PostStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Just enough of a post to answer a conditional GET without loading it
+@Value
+public class PostValidator {
+    Long id;
+    String slug;
+    PostStatus status;
+    LocalDateTime updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.blog.dto.projection;
+
+import lombok.Value;
+
+@Value
+public class PostViews {
+    Long postId;
+    long views;
+}
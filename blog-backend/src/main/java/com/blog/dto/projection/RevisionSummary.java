@@ -0,0 +1,16 @@
+package com.blog.dto.projection;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// One entry of a post's revision list, without the stored content
+@Value
+public class RevisionSummary {
+    int number;
+    String title;
+    int contentLength;
+    LocalDateTime createdAt;
+    Long authorId;
+    String authorUsername;
+}
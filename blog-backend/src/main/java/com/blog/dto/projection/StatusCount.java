@@ -0,0 +1,10 @@
+package com.blog.dto.projection;
+
+import com.blog.entity.PostStatus;
+import lombok.Value;
+
+@Value
+public class StatusCount {
+    PostStatus status;
+    Long count;
+}
@@ -0,0 +1,31 @@
+package com.blog.dto.response;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private String name;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    
+    public static CacheStatsResponse from(String name, long size, CacheStats stats) {
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(size)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
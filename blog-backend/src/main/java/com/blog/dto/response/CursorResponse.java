@@ -0,0 +1,19 @@
+package com.blog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor; // null on the last page
+    private boolean last;
+}
@@ -0,0 +1,33 @@
+package com.blog.dto.response;
+
+import com.blog.entity.Image;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageResponse {
+    private String hash;
+    private String contentType;
+    private int width;
+    private int height;
+    private long size;
+    private boolean variantsReady;
+    private ImageUrls urls;
+    
+    public static ImageResponse fromEntity(Image image, String publicUrl) {
+        return ImageResponse.builder()
+                .hash(image.getHash())
+                .contentType("image/" + image.getFormat())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .size(image.getSize())
+                .variantsReady(image.isVariantsReady())
+                .urls(ImageUrls.of(publicUrl + "/images/" + image.getHash()))
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.blog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Every size of an uploaded image. Derived from the URL alone, so mapping a post to its
+// response never looks the image up.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUrls {
+    
+    private static final String ORIGINAL = "/original";
+    private static final Pattern UPLOADED = Pattern.compile("^(.*/images/[0-9a-f]{64})/original$");
+    
+    private String original;
+    private String large;
+    private String thumbnail;
+    
+    public static ImageUrls of(String base) {
+        return ImageUrls.builder()
+                .original(base + ORIGINAL)
+                .large(base + "/large")
+                .thumbnail(base + "/thumbnail")
+                .build();
+    }
+    
+    // Null for anything but an original served by /images, such as an external featured image URL
+    public static ImageUrls parse(String url) {
+        if (url == null || !url.endsWith(ORIGINAL)) {
+            return null;
+        }
+        Matcher matcher = UPLOADED.matcher(url);
+        return matcher.matches() ? of(matcher.group(1)) : null;
+    }
+}
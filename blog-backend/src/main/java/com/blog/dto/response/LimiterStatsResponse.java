@@ -0,0 +1,17 @@
+package com.blog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LimiterStatsResponse {
+    private String name;
+    private int limit;
+    private int inFlight;
+    private long rejected;
+}
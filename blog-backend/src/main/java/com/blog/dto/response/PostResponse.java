@@ -1,7 +1,10 @@
 package com.blog.dto.response;
 
+import com.blog.dto.projection.PostSummary;
 import com.blog.entity.Post;
 import com.blog.entity.PostStatus;
+import com.blog.service.ContentRenderer;
+import com.blog.service.ContentUtil;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,11 +24,21 @@ public class PostResponse {
     private String slug;
     private String content;
     private String excerpt;
+    private Integer wordCount;
+    private Integer readingTime;
     private String featuredImage;
+    // Set when the featured image was uploaded here; lists use the thumbnail, the detail view the large size
+    private ImageUrls featuredImageUrls;
     private PostStatus status;
     private AuthorInfo author;
     private CategoryInfo category;
     private List<TagInfo> tags;
+    // Detail view only, from the rendered content; content stays the author's source for the editor
+    private String html;
+    private List<TocEntry> toc;
+    private List<String> images;
+    // Popular list only
+    private Long views;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -58,13 +71,25 @@ public class PostResponse {
         private String slug;
     }
     
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TocEntry {
+        private int level;
+        private String text;
+        private String anchor;
+    }
+    
     public static PostResponse fromEntity(Post post) {
         return fromEntity(post, false);
     }
     
     public static PostResponse fromEntity(Post post, boolean includeFullContent) {
         String content = post.getContent();
-        String excerpt = content.length() > 200 ? content.substring(0, 200) + "..." : content;
+        String excerpt = post.getExcerpt() != null
+                ? post.getExcerpt()
+                : ContentUtil.toExcerpt(ContentUtil.toPlainText(content));
         
         return PostResponse.builder()
                 .id(post.getId())
@@ -72,7 +97,10 @@ public class PostResponse {
                 .slug(post.getSlug())
                 .content(includeFullContent ? content : null)
                 .excerpt(excerpt)
+                .wordCount(post.getWordCount())
+                .readingTime(post.getReadingTime())
                 .featuredImage(post.getFeaturedImage())
+                .featuredImageUrls(ImageUrls.parse(post.getFeaturedImage()))
                 .status(post.getStatus())
                 .author(AuthorInfo.builder()
                         .id(post.getAuthor().getId())
@@ -94,4 +122,39 @@ public class PostResponse {
                 .updatedAt(post.getUpdatedAt())
                 .build();
     }
+    
+    // Detail view carries the write-time rendering next to the stored editor HTML
+    public static PostResponse fromEntity(Post post, ContentRenderer.Rendered rendered) {
+        PostResponse response = fromEntity(post, true);
+        response.setHtml(rendered.getHtml());
+        response.setToc(rendered.getToc());
+        response.setImages(rendered.getImages());
+        return response;
+    }
+    
+    public static PostResponse fromSummary(PostSummary summary, List<TagInfo> tags) {
+        return PostResponse.builder()
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .slug(summary.getSlug())
+                .excerpt(summary.getExcerpt())
+                .wordCount(summary.getWordCount())
+                .readingTime(summary.getReadingTime())
+                .featuredImage(summary.getFeaturedImage())
+                .featuredImageUrls(ImageUrls.parse(summary.getFeaturedImage()))
+                .status(summary.getStatus())
+                .author(AuthorInfo.builder()
+                        .id(summary.getAuthorId())
+                        .username(summary.getAuthorUsername())
+                        .build())
+                .category(CategoryInfo.builder()
+                        .id(summary.getCategoryId())
+                        .name(summary.getCategoryName())
+                        .slug(summary.getCategorySlug())
+                        .build())
+                .tags(tags)
+                .createdAt(summary.getCreatedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .build();
+    }
 }
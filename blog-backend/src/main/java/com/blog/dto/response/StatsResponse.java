@@ -1,10 +1,13 @@
 package com.blog.dto.response;
 
+import com.blog.entity.PostStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,4 +17,7 @@ public class StatsResponse {
     private long totalUsers;
     private long totalCategories;
     private long totalTags;
+    private Map<PostStatus, Long> postsByStatus;
+    private Map<String, Long> publishedPostsByCategory;
+    private Map<String, Long> publishedPostsByTag;
 }
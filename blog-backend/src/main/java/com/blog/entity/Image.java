@@ -0,0 +1,47 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// An uploaded image, keyed by the SHA-256 of its bytes: uploading the same file again reuses
+// the row and the files on disk.
+@Entity
+@Table(name = "images")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Image {
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    // ImageIO format name: jpeg, png or gif
+    @Column(nullable = false, length = 10)
+    private String format;
+    
+    @Column(nullable = false)
+    private int width;
+    
+    @Column(nullable = false)
+    private int height;
+    
+    @Column(nullable = false)
+    private long size;
+    
+    @Column(name = "uploaded_by")
+    private Long uploadedBy;
+    
+    // False until the resized variants are on disk; the originals are served meanwhile
+    @Column(name = "variants_ready", nullable = false)
+    private boolean variantsReady;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
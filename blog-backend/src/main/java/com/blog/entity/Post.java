@@ -14,6 +14,8 @@ import java.util.Set;
     @Index(name = "idx_slug", columnList = "slug"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_status_created_at_id", columnList = "status, created_at, id"),
+    @Index(name = "idx_category_status_created_at_id", columnList = "category_id, status, created_at, id"),
     @Index(name = "idx_author_id", columnList = "author_id"),
     @Index(name = "idx_category_id", columnList = "category_id")
 })
@@ -37,6 +39,20 @@ public class Post {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Key of the RenderedContent row the detail view is served from
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    // Derived from content on every write so list views never read the TEXT column
+    @Column(length = 500)
+    private String excerpt;
+    
+    @Column(name = "word_count")
+    private Integer wordCount;
+    
+    @Column(name = "reading_time")
+    private Integer readingTime;
+    
     @Column(name = "featured_image", length = 500)
     private String featuredImage;
 
@@ -70,20 +86,19 @@ public class Post {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    // Helper methods
+    // Helper methods. Post owns post_tags, so only this side is touched: Tag.posts is never
+    // initialized, which would load every post carrying the tag.
     public void addTag(Tag tag) {
         this.tags.add(tag);
-        tag.getPosts().add(this);
     }
 
     public void removeTag(Tag tag) {
         this.tags.remove(tag);
-        tag.getPosts().remove(this);
     }
 
-    public void clearTags() {
-        for (Tag tag : new HashSet<>(this.tags)) {
-            removeTag(tag);
-        }
+    // Edits the collection in place so Hibernate deletes and inserts only the changed join rows
+    public void replaceTags(Set<Tag> newTags) {
+        this.tags.retainAll(newTags);
+        this.tags.addAll(newTags);
     }
 }
@@ -0,0 +1,66 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One saved state of a post's title and content. Content is stored either as a compressed
+// snapshot (number == base) or as a compressed delta against the previous revision of the
+// post; a delta chain starts at its base snapshot and is bounded in length.
+@Entity
+@Table(name = "post_revisions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_post_revision_number", columnNames = {"post_id", "number"})
+}, indexes = {
+    @Index(name = "idx_post_revision_compacted_created_at", columnList = "compacted, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostRevision {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    
+    // 1, 2, 3... per post; compaction leaves gaps, numbers are never reused
+    @Column(nullable = false)
+    private int number;
+    
+    // Number of the snapshot this revision's delta chain starts from
+    @Column(nullable = false)
+    private int base;
+    
+    @Column(nullable = false, length = 200)
+    private String title;
+    
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+    
+    // SHA-256 of title and content, to skip saves that change neither
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+    
+    // Characters of content
+    @Column(name = "content_length", nullable = false)
+    private int contentLength;
+    
+    @Column(name = "author_id")
+    private Long authorId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Set once background compaction has thinned the post's revisions up to this one
+    @Column(nullable = false)
+    private boolean compacted;
+    
+    public boolean isSnapshot() {
+        return number == base;
+    }
+}
@@ -0,0 +1,24 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// View totals live apart from posts so flushing them never locks or touches the post rows
+@Entity
+@Table(name = "post_views", indexes = {
+    @Index(name = "idx_post_views_views", columnList = "views")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostView {
+    
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Column(nullable = false)
+    private long views;
+}
@@ -0,0 +1,52 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Output of the content pipeline, keyed by the SHA-256 of the editor HTML it was rendered from.
+// Posts with identical content share a row.
+@Entity
+@Table(name = "rendered_content")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RenderedContent {
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @Column(name = "pipeline_version", nullable = false)
+    private int pipelineVersion;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String html;
+    
+    @Column(name = "plain_text", nullable = false, columnDefinition = "TEXT")
+    private String plainText;
+    
+    @Column(length = 500)
+    private String excerpt;
+    
+    @Column(name = "word_count")
+    private Integer wordCount;
+    
+    @Column(name = "reading_time")
+    private Integer readingTime;
+    
+    // JSON arrays
+    @Column(columnDefinition = "TEXT")
+    private String toc;
+    
+    @Column(columnDefinition = "TEXT")
+    private String images;
+    
+    @UpdateTimestamp
+    @Column(name = "rendered_at")
+    private LocalDateTime renderedAt;
+}
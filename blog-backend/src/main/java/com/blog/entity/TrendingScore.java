@@ -0,0 +1,27 @@
+package com.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Last saved trending snapshot: each post's decayed score as of savedAt
+@Entity
+@Table(name = "trending_scores")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrendingScore {
+    
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Column(nullable = false)
+    private double score;
+    
+    @Column(name = "saved_at", nullable = false)
+    private LocalDateTime savedAt;
+}
@@ -0,0 +1,12 @@
+package com.blog.event;
+
+import lombok.Value;
+
+// Published by CategoryService inside the write transaction; listeners react after commit
+@Value
+public class CategoryChangedEvent {
+    Long categoryId;
+    // null before a create and after a delete
+    String previousSlug;
+    String slug;
+}
@@ -0,0 +1,91 @@
+package com.blog.event;
+
+import com.blog.entity.Post;
+import com.blog.entity.PostStatus;
+import com.blog.entity.Tag;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Published by PostService inside the write transaction; listeners react after commit
+@Value
+@Builder
+public class PostChangedEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        APPROVED,
+        REJECTED
+    }
+    
+    // What listeners need to know about one side of the change, copied out of the entity
+    @Value
+    public static class PostState {
+        String slug;
+        PostStatus status;
+        String categorySlug;
+        Set<String> tagSlugs;
+    
+        public static PostState of(Post post) {
+            return new PostState(
+                    post.getSlug(),
+                    post.getStatus(),
+                    post.getCategory().getSlug(),
+                    post.getTags().stream().map(Tag::getSlug).collect(Collectors.toUnmodifiableSet()));
+        }
+    
+        public boolean isPublished() {
+            return status == PostStatus.PUBLISHED;
+        }
+    }
+    
+    Long postId;
+    Type type;
+    
+    // null before a create and after a delete
+    PostState before;
+    PostState after;
+    
+    // True when the post was or is PUBLISHED, i.e. public listings may have changed
+    public boolean isPublicChange() {
+        return states().anyMatch(PostState::isPublished);
+    }
+    
+    // Every category the post left or joined
+    public Set<String> getCategorySlugs() {
+        return states().map(PostState::getCategorySlug).collect(Collectors.toSet());
+    }
+    
+    // Every tag the post left or joined
+    public Set<String> getTagSlugs() {
+        Set<String> slugs = new HashSet<>();
+        states().forEach(state -> slugs.addAll(state.getTagSlugs()));
+        return slugs;
+    }
+    
+    private Stream<PostState> states() {
+        return Stream.of(before, after).filter(Objects::nonNull);
+    }
+    
+    public static class PostChangedEventBuilder {
+    
+        // Snapshots the post as it is now; call it before the change
+        public PostChangedEventBuilder before(Post post) {
+            this.before = PostState.of(post);
+            return this;
+        }
+    
+        // Snapshots the post as it is now; call it after the change
+        public PostChangedEventBuilder after(Post post) {
+            this.after = PostState.of(post);
+            return this;
+        }
+    }
+}
@@ -39,4 +39,32 @@ public class ApiException {
             super(message);
         }
     }
+    
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public static class TooManyRequestsException extends RuntimeException {
+        private final long retryAfterSeconds;
+        
+        public TooManyRequestsException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+    
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class ServiceUnavailableException extends RuntimeException {
+        private final long retryAfterSeconds;
+        
+        public ServiceUnavailableException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+        
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.blog.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -48,12 +50,32 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage(), request);
     }
     
+    @ExceptionHandler(ApiException.TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(
+            ApiException.TooManyRequestsException ex, WebRequest request) {
+        return withRetryAfter(buildErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request),
+                ex.getRetryAfterSeconds());
+    }
+    
+    @ExceptionHandler(ApiException.ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(
+            ApiException.ServiceUnavailableException ex, WebRequest request) {
+        return withRetryAfter(buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request),
+                ex.getRetryAfterSeconds());
+    }
+    
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentials(
             BadCredentialsException ex, WebRequest request) {
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, "Invalid email/username or password", request);
     }
     
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSize(
+            MaxUploadSizeExceededException ex, WebRequest request) {
+        return buildErrorResponse(HttpStatus.PAYLOAD_TOO_LARGE, "Uploaded file is too large", request);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -96,6 +118,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(errorResponse);
     }
     
+    private ResponseEntity<ErrorResponse> withRetryAfter(ResponseEntity<ErrorResponse> response, long seconds) {
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(response.getBody());
+    }
+    
     @lombok.Data
     @lombok.Builder
     @lombok.NoArgsConstructor
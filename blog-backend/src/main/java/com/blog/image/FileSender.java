@@ -0,0 +1,131 @@
+package com.blog.image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes a file, or one byte range of it, without copying it through the heap. On Tomcat with
+// sendfile enabled the connector hands the file to the kernel after the servlet returns; otherwise
+// FileChannel.transferTo copies it to the response channel.
+public final class FileSender {
+    
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    private FileSender() {
+    }
+    
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file,
+                            MediaType type, String etag, String cacheControl) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    
+            if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+    
+            long start = 0;
+            long end = length - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (range != null && (ifRange == null || ifRange.equals(etag))) {
+                long[] bounds = parseRange(range, length);
+                if (bounds == null) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                if (bounds.length == 2) {
+                    start = bounds[0];
+                    end = bounds[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+    
+            long count = end - start + 1;
+            response.setContentType(type.toString());
+            response.setContentLengthLong(count);
+            if ("HEAD".equals(request.getMethod()) || count <= 0) {
+                return;
+            }
+    
+            // Not under a body-buffering wrapper (query stats headers), which would overwrite the length
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                    && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+    
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+    
+    // A single "bytes=" range as {start, end}; an empty array to ignore the header and send the
+    // whole file (unknown unit, malformed or several ranges); null when it is not satisfiable
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return null;
+                }
+                return new long[] {Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+            if (start >= length) {
+                return null;
+            }
+            if (end < start) {
+                return new long[0];
+            }
+            return new long[] {start, Math.min(end, length - 1)};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+    
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
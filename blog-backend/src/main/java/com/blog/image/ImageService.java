@@ -0,0 +1,159 @@
+package com.blog.image;
+
+import com.blog.dto.response.ImageResponse;
+import com.blog.entity.Image;
+import com.blog.entity.User;
+import com.blog.exception.ApiException;
+import com.blog.repository.ImageRepository;
+import com.blog.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class ImageService {
+    
+    private static final Set<String> FORMATS = Set.of("jpeg", "png", "gif");
+    
+    @lombok.Value
+    public static class Upload {
+        ImageResponse image;
+        boolean created; // false when the same bytes were uploaded before
+    }
+    
+    private final ImageRepository imageRepository;
+    private final UserRepository userRepository;
+    private final ImageStorage storage;
+    private final ImageVariantGenerator variantGenerator;
+    private final String publicUrl;
+    private final long maxPixels;
+    
+    public ImageService(
+            ImageRepository imageRepository,
+            UserRepository userRepository,
+            ImageStorage storage,
+            ImageVariantGenerator variantGenerator,
+            @Value("${blog.public-url}") String publicUrl,
+            @Value("${blog.images.max-pixels:25000000}") long maxPixels) {
+        this.imageRepository = imageRepository;
+        this.userRepository = userRepository;
+        this.storage = storage;
+        this.variantGenerator = variantGenerator;
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+        this.maxPixels = maxPixels;
+    }
+    
+    // The upload is hashed while it is copied to disk; only the header is decoded here, the
+    // variants are left to the worker pool
+    public Upload upload(MultipartFile file, String userEmail) {
+        if (file.isEmpty()) {
+            throw new ApiException.BadRequestException("Image file is empty");
+        }
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ApiException.ResourceNotFoundException("User not found"));
+    
+        Path temp = null;
+        try {
+            temp = storage.newTempFile();
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+    
+            Optional<Image> existing = imageRepository.findById(hash);
+            if (existing.isPresent()) {
+                return new Upload(ImageResponse.fromEntity(existing.get(), publicUrl), false);
+            }
+    
+            Image image = probe(temp);
+            image.setHash(hash);
+            image.setSize(Files.size(temp));
+            image.setUploadedBy(user.getId());
+            storage.publish(temp, hash, ImageVariant.ORIGINAL, image.getFormat());
+            try {
+                image = imageRepository.save(image);
+            } catch (DataIntegrityViolationException e) {
+                // The same bytes were uploaded concurrently; the file written is identical
+                return new Upload(ImageResponse.fromEntity(imageRepository.findById(hash).orElseThrow(), publicUrl), false);
+            }
+            variantGenerator.submit(hash);
+            log.info("Image {} uploaded ({}x{} {}, {} bytes)",
+                    hash, image.getWidth(), image.getHeight(), image.getFormat(), image.getSize());
+            return new Upload(ImageResponse.fromEntity(image, publicUrl), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Cannot delete upload temp file {}", temp);
+                }
+            }
+        }
+    }
+    
+    // Format and dimensions from the header; the pixel limit rejects decompression bombs
+    // before anything decodes them
+    private Image probe(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            ImageReader reader = readers.hasNext() ? readers.next() : null;
+            String format = reader != null ? reader.getFormatName().toLowerCase(Locale.ROOT) : null;
+            if (format == null || !FORMATS.contains(format)) {
+                if (reader != null) {
+                    reader.dispose();
+                }
+                throw new ApiException.BadRequestException("Unsupported image format, use JPEG, PNG or GIF");
+            }
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new ApiException.BadRequestException(
+                            "Image is too large: " + width + "x" + height + " exceeds " + maxPixels + " pixels");
+                }
+                return Image.builder()
+                        .format(format)
+                        .width(width)
+                        .height(height)
+                        .build();
+            } catch (IOException e) {
+                throw new ApiException.BadRequestException("Image could not be read");
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.blog.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+// Image files on local disk, one directory per content hash: {root}/ab/abcd.../large.jpg.
+// Files are written under {root}/tmp and moved into place, so a reader never sees a partial file.
+@Component
+public class ImageStorage {
+    
+    private static final List<String> EXTENSIONS = List.of("jpg", "png", "gif");
+    
+    private final Path root;
+    private final Path incoming;
+    
+    public ImageStorage(@Value("${blog.images.root:./data/images}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("tmp");
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image directory " + incoming, e);
+        }
+    }
+    
+    public Path newTempFile() throws IOException {
+        return Files.createTempFile(incoming, "image-", ".tmp");
+    }
+    
+    public void publish(Path temp, String hash, ImageVariant variant, String format) throws IOException {
+        Path directory = directory(hash);
+        Files.createDirectories(directory);
+        Files.move(temp, directory.resolve(variant.getName() + "." + extension(format)),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    // Variants may be stored in a different format than the original, so the extension is probed
+    public Optional<Path> find(String hash, ImageVariant variant) {
+        Path directory = directory(hash);
+        for (String extension : EXTENSIONS) {
+            Path file = directory.resolve(variant.getName() + "." + extension);
+            if (Files.isRegularFile(file)) {
+                return Optional.of(file);
+            }
+        }
+        return Optional.empty();
+    }
+    
+    public static MediaType mediaType(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".png")) {
+            return MediaType.IMAGE_PNG;
+        }
+        return name.endsWith(".gif") ? MediaType.IMAGE_GIF : MediaType.IMAGE_JPEG;
+    }
+    
+    private static String extension(String format) {
+        return "jpeg".equals(format) ? "jpg" : format;
+    }
+    
+    private Path directory(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
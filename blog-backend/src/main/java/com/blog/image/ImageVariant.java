@@ -0,0 +1,35 @@
+package com.blog.image;
+
+import java.util.Locale;
+import java.util.Optional;
+
+// Sizes kept per uploaded image. Variants are only ever scaled down.
+public enum ImageVariant {
+    ORIGINAL(0),
+    LARGE(1200),
+    THUMBNAIL(400);
+    
+    private final int maxWidth;
+    
+    ImageVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+    
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+    
+    // As it appears in URLs and file names
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+    
+    public static Optional<ImageVariant> fromName(String name) {
+        for (ImageVariant variant : values()) {
+            if (variant.getName().equals(name)) {
+                return Optional.of(variant);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,245 @@
+package com.blog.image;
+
+import com.blog.repository.ImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Resized variants are written off the request thread on a small bounded pool. When the queue is
+// full the job is dropped: the image stays marked without variants, its original is served in
+// their place, and the next retry sweep (or startup) picks it up again.
+@Slf4j
+@Component
+public class ImageVariantGenerator {
+    
+    private static final List<ImageVariant> VARIANTS = List.of(ImageVariant.LARGE, ImageVariant.THUMBNAIL);
+    private static final float JPEG_QUALITY = 0.85f;
+    
+    private final ImageRepository imageRepository;
+    private final ImageStorage storage;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Timer generationTimer;
+    private final Counter rejected;
+    
+    public ImageVariantGenerator(
+            ImageRepository imageRepository,
+            ImageStorage storage,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${blog.images.workers:2}") int workers,
+            @Value("${blog.images.queue-capacity:100}") int queueCapacity) {
+        this.imageRepository = imageRepository;
+        this.storage = storage;
+        this.transactionTemplate = transactionTemplate;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Decoded images stay in memory; the default disk cache only adds temp file churn
+        ImageIO.setUseCache(false);
+    
+        this.generationTimer = meterRegistry.timer("blog.images.variants.time");
+        this.rejected = meterRegistry.counter("blog.images.variants.rejected");
+        Gauge.builder("blog.images.variants.queued", executor, e -> e.getQueue().size())
+                .description("Images waiting for their resized variants")
+                .register(meterRegistry);
+    }
+    
+    public void submit(String hash) {
+        if (!pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(hash);
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            rejected.increment();
+            log.warn("Image variant queue full ({} queued), leaving {} for the next retry",
+                    executor.getQueue().size(), hash);
+        }
+    }
+    
+    // Runs the backlog on this thread rather than through the queue, so it cannot crowd out new uploads
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<String> hashes = imageRepository.findHashesWithoutVariants();
+        if (hashes.isEmpty()) {
+            return;
+        }
+        log.info("Generating variants for {} images", hashes.size());
+        for (String hash : hashes) {
+            if (pending.add(hash)) {
+                try {
+                    generate(hash);
+                } finally {
+                    pending.remove(hash);
+                }
+            }
+        }
+    }
+    
+    // Images whose job was rejected or failed go back on the pool, but only while it is at most
+    // half full; the rest wait for the next sweep, so uploads keep room in the queue
+    @Scheduled(fixedDelayString = "${blog.images.retry-interval:PT5M}",
+               initialDelayString = "${blog.images.retry-interval:PT5M}")
+    public void retry() {
+        int submitted = 0;
+        for (String hash : imageRepository.findHashesWithoutVariants()) {
+            if (executor.getQueue().remainingCapacity() <= queueCapacity / 2) {
+                break;
+            }
+            if (!pending.contains(hash)) {
+                submit(hash);
+                submitted++;
+            }
+        }
+        if (submitted > 0) {
+            log.info("Retrying variants for {} images", submitted);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    private void generate(String hash) {
+        Path original = storage.find(hash, ImageVariant.ORIGINAL).orElse(null);
+        if (original == null) {
+            log.warn("Original of image {} is missing, skipping its variants", hash);
+            return;
+        }
+        try {
+            generationTimer.recordCallable(() -> {
+                BufferedImage source = read(original, ImageVariant.LARGE.getMaxWidth());
+                boolean alpha = source.getColorModel().hasAlpha();
+                for (ImageVariant variant : VARIANTS) {
+                    write(scaleToWidth(source, variant.getMaxWidth(), alpha), hash, variant, alpha ? "png" : "jpeg");
+                }
+                return null;
+            });
+            transactionTemplate.executeWithoutResult(status -> imageRepository.markVariantsReady(hash));
+        } catch (Exception e) {
+            log.warn("Cannot generate variants for image {}: {}", hash, e.getMessage());
+        }
+    }
+    
+    // Large sources are decoded subsampled, down to about twice the widest variant, which bounds
+    // the memory a worker holds without visibly softening the smooth downscale that follows
+    private static BufferedImage read(Path file, int widest) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("No reader for " + file.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getWidth(0) / (2 * widest));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    // Halves repeatedly before the last bilinear step; a single large bilinear step skips pixels
+    private static BufferedImage scaleToWidth(BufferedImage source, int maxWidth, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+    
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width > targetWidth);
+        return current;
+    }
+    
+    private void write(BufferedImage image, String hash, ImageVariant variant, String format) throws IOException {
+        Path temp = storage.newTempFile();
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            storage.publish(temp, hash, variant, format);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.blog.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+public final class HandlerNames {
+    
+    private HandlerNames() {
+    }
+    
+    // "PostController#getPostBySlug", or "none" when no controller handled the request
+    // (served by a filter, rejected before dispatch, 404)
+    public static String of(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return "none";
+    }
+}
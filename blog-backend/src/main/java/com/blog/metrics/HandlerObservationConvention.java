@@ -0,0 +1,17 @@
+package com.blog.metrics;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+// Adds the controller method to http.server.requests, so latency histograms are per handler
+@Component
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+    
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context)
+                .and("handler", HandlerNames.of(context.getCarrier()));
+    }
+}
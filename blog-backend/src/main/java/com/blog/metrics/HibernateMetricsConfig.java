@@ -0,0 +1,57 @@
+package com.blog.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+// Hooks Hibernate so every entity load and lazy collection fetch is counted against the
+// request that caused it (see RequestQueryStats); statements are counted at the JDBC level
+@Configuration
+public class HibernateMetricsConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryStatsCustomizer() {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new LoadCountingIntegrator()));
+    }
+    
+    private static class LoadCountingIntegrator implements Integrator {
+        
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            
+            registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+                RequestQueryStats stats = RequestQueryStats.current();
+                if (stats != null) {
+                    stats.entityLoaded();
+                }
+            });
+            registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+                RequestQueryStats stats = RequestQueryStats.current();
+                if (stats != null) {
+                    stats.collectionFetched();
+                }
+            });
+        }
+        
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
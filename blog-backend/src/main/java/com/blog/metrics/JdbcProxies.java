@@ -0,0 +1,119 @@
+package com.blog.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// JDBC wrappers that time every statement execution and count the rows it returned or changed.
+// Outside a request (RequestQueryStats.current() is null) calls go straight to the driver.
+final class JdbcProxies {
+    
+    private JdbcProxies() {
+    }
+    
+    static DataSource dataSource(DataSource target) {
+        return proxy(DataSource.class, target, (method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Connection connection ? connection(connection) : result;
+        });
+    }
+    
+    private static Connection connection(Connection target) {
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Statement statement ? statement(statement) : result;
+        });
+    }
+    
+    private static Statement statement(Statement target) {
+        Class<? extends Statement> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+    
+        return proxy(type, target, (method, args) -> {
+            RequestQueryStats stats = RequestQueryStats.current();
+            String name = method.getName();
+    
+            if (stats == null) {
+                return method.invoke(target, args);
+            }
+            if (name.equals("getResultSet")) {
+                return resultSet((ResultSet) method.invoke(target, args), stats);
+            }
+            if (!name.startsWith("execute")) {
+                return method.invoke(target, args);
+            }
+    
+            long start = System.nanoTime();
+            Object result = method.invoke(target, args);
+            stats.statementExecuted(System.nanoTime() - start);
+    
+            if (result instanceof ResultSet resultSet) {
+                return resultSet(resultSet, stats);
+            }
+            stats.rowsProcessed(updateCount(result));
+            return result;
+        });
+    }
+    
+    private static ResultSet resultSet(ResultSet target, RequestQueryStats stats) {
+        if (target == null) {
+            return null;
+        }
+        return proxy(ResultSet.class, target, (method, args) -> {
+            Object result = method.invoke(target, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                stats.rowsProcessed(1);
+            }
+            return result;
+        });
+    }
+    
+    // Rows changed by executeUpdate / executeBatch; execute() reports a boolean, not a count
+    private static long updateCount(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(0, count.longValue());
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+    
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+    
+    // Identity equality so Hibernate and Hikari can keep the wrappers in hash-based collections
+    private static <T> T proxy(Class<? extends T> type, T target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return handler.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+}
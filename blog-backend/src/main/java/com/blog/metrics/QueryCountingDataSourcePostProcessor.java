@@ -0,0 +1,21 @@
+package com.blog.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Routes every JDBC call, Hibernate's and JdbcTemplate's alike, through JdbcProxies.
+// unwrap() still reaches the pool, so the Hikari metrics and health checks see through it.
+@Component
+public class QueryCountingDataSourcePostProcessor implements BeanPostProcessor {
+    
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return JdbcProxies.dataSource(dataSource);
+        }
+        return bean;
+    }
+}
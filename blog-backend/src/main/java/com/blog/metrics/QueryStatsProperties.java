@@ -0,0 +1,21 @@
+package com.blog.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.query-stats")
+public class QueryStatsProperties {
+    
+    // Requests above either budget are logged with their handler and counts
+    private int statementBudget = 20;
+    private Duration dbTimeBudget = Duration.ofMillis(200);
+    
+    // Adds X-Query-Count, X-Query-Rows and X-Query-Time to every response. Buffers response
+    // bodies to do so, meant for development and tests.
+    private boolean headers = false;
+}
@@ -0,0 +1,95 @@
+package com.blog.metrics;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Database work done for the current request, fed by JdbcProxies and the Hibernate hooks.
+// An async request carries the same instance from its first dispatch to the second, and into
+// the work it hands to another thread through propagate().
+public final class RequestQueryStats {
+    
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+    
+    private int statements;
+    private long rows;
+    private long dbNanos;
+    private int entityLoads;
+    private int collectionFetches;
+    
+    RequestQueryStats() {
+    }
+    
+    static void bind(RequestQueryStats stats) {
+        CURRENT.set(stats);
+    }
+    
+    static void unbind() {
+        CURRENT.remove();
+    }
+    
+    // null outside a request, e.g. in background jobs
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+    
+    // Binds the caller's stats while the task runs on another thread, e.g. login on the password
+    // hashing pool. The request thread does no database work until the result comes back in the
+    // second dispatch, so the counts are never written from two threads at once.
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestQueryStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+    
+    void statementExecuted(long nanos) {
+        statements++;
+        dbNanos += nanos;
+    }
+    
+    void rowsProcessed(long count) {
+        rows += count;
+    }
+    
+    void entityLoaded() {
+        entityLoads++;
+    }
+    
+    void collectionFetched() {
+        collectionFetches++;
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    // Rows read from result sets plus rows changed by updates
+    public long getRows() {
+        return rows;
+    }
+    
+    public Duration getDbTime() {
+        return Duration.ofNanos(dbNanos);
+    }
+    
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+    
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+}
@@ -0,0 +1,115 @@
+package com.blog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+// Records the database work of each request per endpoint, logs requests over the query
+// budget and, when enabled, reports the counts in X-Query-* response headers
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RequestQueryStatsFilter extends OncePerRequestFilter {
+    
+    private static final String STATS_ATTRIBUTE = RequestQueryStatsFilter.class.getName() + ".STATS";
+    
+    private final MeterRegistry meterRegistry;
+    private final QueryStatsProperties properties;
+    
+    // Async requests (login, register) finish in a second dispatch, which keeps counting
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+    
+        // Stats already bound to the thread belong to a caller that is counting itself, a test under
+        // @QueryBudget driving MockMvc; the request adds to them. Tomcat threads never have any.
+        RequestQueryStats outer = RequestQueryStats.current();
+        RequestQueryStats stats = (RequestQueryStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = outer != null ? outer : new RequestQueryStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+    
+        // The headers must be set before the body, so the body is held back until the end
+        HttpServletResponse target = response;
+        if (properties.isHeaders() && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            target = new ContentCachingResponseWrapper(response);
+        }
+    
+        RequestQueryStats.bind(stats);
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            if (outer != null) {
+                RequestQueryStats.bind(outer);
+            } else {
+                RequestQueryStats.unbind();
+            }
+            if (!isAsyncStarted(request)) {
+                record(request, stats);
+            }
+        }
+    
+        if (!isAsyncStarted(request)) {
+            ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(target, ContentCachingResponseWrapper.class);
+            if (wrapper != null) {
+                wrapper.setHeader("X-Query-Count", String.valueOf(stats.getStatements()));
+                wrapper.setHeader("X-Query-Rows", String.valueOf(stats.getRows()));
+                wrapper.setHeader("X-Query-Time", String.valueOf(stats.getDbTime().toMillis()));
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+    
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        String handler = HandlerNames.of(request);
+        summary("blog.db.statements", "JDBC statements executed per request", handler, stats.getStatements());
+        summary("blog.db.rows", "Rows read or changed per request", handler, stats.getRows());
+        summary("blog.db.entity.loads", "Entities loaded per request", handler, stats.getEntityLoads());
+        summary("blog.db.collection.fetches", "Lazy collections initialized per request", handler, stats.getCollectionFetches());
+        Timer.builder("blog.db.time")
+                .description("Time spent executing JDBC statements per request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(stats.getDbTime());
+    
+        if (stats.getStatements() > properties.getStatementBudget()
+                || stats.getDbTime().compareTo(properties.getDbTimeBudget()) > 0) {
+            log.warn("{} {} ({}) is over the query budget: {} statements, {} rows, {} ms in the database",
+                    request.getMethod(), request.getRequestURI(), handler,
+                    stats.getStatements(), stats.getRows(), stats.getDbTime().toMillis());
+        }
+    }
+    
+    private void summary(String name, String description, String handler, double value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
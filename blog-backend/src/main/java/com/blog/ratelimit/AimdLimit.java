@@ -0,0 +1,80 @@
+package com.blog.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Concurrency limit adjusted from observed latency: additive increase while requests finish
+// under the target and the limit is actually in use, multiplicative decrease when they don't.
+class AimdLimit {
+    
+    private static final double BACKOFF = 0.9;
+    
+    private final int min;
+    private final int max;
+    private final long targetNanos;
+    
+    private volatile double limit;
+    private long lastDecrease;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    
+    AimdLimit(ConcurrencyLimitProperties.Limit settings) {
+        this.min = settings.getMin();
+        this.max = settings.getMax();
+        this.targetNanos = settings.getTargetLatency().toNanos();
+        this.limit = settings.getInitial();
+        this.lastDecrease = System.nanoTime();
+    }
+    
+    // Takes a slot if fewer than share * limit are in flight
+    boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (getLimit() * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    void release(long latencyNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(latencyNanos, inFlightAtStart);
+    }
+    
+    // Gives a slot back without a sample, e.g. when another limit refused the request
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+    
+    private synchronized void onSample(long latencyNanos, int inFlightAtStart) {
+        long now = System.nanoTime();
+        if (latencyNanos > targetNanos) {
+            // At most one decrease per target period, one slow burst is one signal
+            if (now - lastDecrease > targetNanos) {
+                limit = Math.max(min, limit * BACKOFF);
+                lastDecrease = now;
+            }
+        } else if (inFlightAtStart * 2 >= limit) {
+            // Roughly +1 per limit's worth of fast requests
+            limit = Math.min(max, limit + 1.0 / limit);
+        }
+    }
+    
+    int getLimit() {
+        return (int) limit;
+    }
+    
+    int getInFlight() {
+        return inFlight.get();
+    }
+    
+    long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,136 @@
+package com.blog.ratelimit;
+
+import com.blog.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Sheds API requests with 503 once their endpoint group, or the server as a whole, is at its
+// adaptive concurrency limit. Runs after the security chain so the caller's priority is known.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 2)
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private final ConcurrencyLimiter limiter;
+    private final ConcurrencyLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !limiter.isEnabled() || !path(request).startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        ConcurrencyLimiter.Permit permit = limiter.tryAcquire(group(request), priority());
+        if (permit == null) {
+            reject(request, response);
+            return;
+        }
+        
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Async requests (login, register) hold the slot until they actually complete
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(permit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permit.release();
+            }
+        }
+    }
+    
+    private static ConcurrencyLimiter.Group group(HttpServletRequest request) {
+        if (path(request).startsWith("/api/admin/")) {
+            return ConcurrencyLimiter.Group.ADMIN;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+            return ConcurrencyLimiter.Group.PUBLIC_READ;
+        }
+        return ConcurrencyLimiter.Group.AUTHENTICATED_WRITE;
+    }
+    
+    private static ConcurrencyLimiter.Priority priority() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return ConcurrencyLimiter.Priority.ANONYMOUS;
+        }
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return admin ? ConcurrencyLimiter.Priority.ADMIN : ConcurrencyLimiter.Priority.AUTHENTICATED;
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        GlobalExceptionHandler.ErrorResponse error = GlobalExceptionHandler.ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message("Server is busy, try again shortly")
+                .path(path(request))
+                .build();
+        
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+    
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+    
+    @RequiredArgsConstructor
+    private static class ReleasingListener implements AsyncListener {
+        private final ConcurrencyLimiter.Permit permit;
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.blog.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    
+    private boolean enabled = true;
+    
+    private Duration retryAfter = Duration.ofSeconds(1);
+    
+    // Shared by every group; the priority shares below apply to it too
+    private Limit global = new Limit(200, 20, 400, Duration.ofMillis(500));
+    private Limit publicRead = new Limit(100, 10, 200, Duration.ofMillis(250));
+    private Limit authenticatedWrite = new Limit(40, 5, 100, Duration.ofSeconds(1));
+    private Limit admin = new Limit(20, 2, 50, Duration.ofSeconds(1));
+    
+    // Fraction of a limit each priority class may fill, so anonymous traffic is shed first
+    private double anonymousShare = 0.5;
+    private double authenticatedShare = 0.9;
+    private double adminShare = 1.0;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private int initial;
+        private int min;
+        private int max;
+        // Requests slower than this shrink the limit, faster ones let it grow
+        private Duration targetLatency;
+    }
+}
@@ -0,0 +1,132 @@
+package com.blog.ratelimit;
+
+import com.blog.dto.response.LimiterStatsResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Adaptive concurrency limits: one per endpoint group plus a global one shared by all groups.
+// A request needs a slot in both, within its priority's share of each limit.
+@Service
+public class ConcurrencyLimiter implements MeterBinder {
+    
+    public enum Group {
+        PUBLIC_READ,
+        AUTHENTICATED_WRITE,
+        ADMIN
+    }
+    
+    public enum Priority {
+        ANONYMOUS,
+        AUTHENTICATED,
+        ADMIN
+    }
+    
+    private final ConcurrencyLimitProperties properties;
+    private final AimdLimit global;
+    private final Map<Group, AimdLimit> groups = new EnumMap<>(Group.class);
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.global = new AimdLimit(properties.getGlobal());
+        groups.put(Group.PUBLIC_READ, new AimdLimit(properties.getPublicRead()));
+        groups.put(Group.AUTHENTICATED_WRITE, new AimdLimit(properties.getAuthenticatedWrite()));
+        groups.put(Group.ADMIN, new AimdLimit(properties.getAdmin()));
+        shares.put(Priority.ANONYMOUS, properties.getAnonymousShare());
+        shares.put(Priority.AUTHENTICATED, properties.getAuthenticatedShare());
+        shares.put(Priority.ADMIN, properties.getAdminShare());
+    }
+    
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+    
+    // Returns null when the request should be shed
+    public Permit tryAcquire(Group group, Priority priority) {
+        double share = shares.get(priority);
+        AimdLimit groupLimit = groups.get(group);
+        
+        int globalInFlight = global.getInFlight();
+        if (!global.tryAcquire(share)) {
+            return null;
+        }
+        int groupInFlight = groupLimit.getInFlight();
+        if (!groupLimit.tryAcquire(share)) {
+            global.cancel();
+            return null;
+        }
+        return new Permit(groupLimit, System.nanoTime(), globalInFlight + 1, groupInFlight + 1);
+    }
+    
+    public List<LimiterStatsResponse> stats() {
+        List<LimiterStatsResponse> stats = new ArrayList<>();
+        stats.add(stats("global", global));
+        groups.forEach((group, limit) -> stats.add(stats(group.name().toLowerCase(Locale.ROOT), limit)));
+        return stats;
+    }
+    
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        bind(registry, "global", global);
+        groups.forEach((group, limit) -> bind(registry, group.name().toLowerCase(Locale.ROOT), limit));
+    }
+    
+    private static void bind(MeterRegistry registry, String name, AimdLimit limit) {
+        Gauge.builder("blog.limiter.limit", limit, AimdLimit::getLimit)
+                .tag("group", name)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("blog.limiter.in.flight", limit, AimdLimit::getInFlight)
+                .tag("group", name)
+                .register(registry);
+        FunctionCounter.builder("blog.limiter.rejected", limit, AimdLimit::getRejected)
+                .tag("group", name)
+                .description("Requests shed with 503")
+                .register(registry);
+    }
+    
+    private static LimiterStatsResponse stats(String name, AimdLimit limit) {
+        return LimiterStatsResponse.builder()
+                .name(name)
+                .limit(limit.getLimit())
+                .inFlight(limit.getInFlight())
+                .rejected(limit.getRejected())
+                .build();
+    }
+    
+    public class Permit {
+        private final AimdLimit groupLimit;
+        private final long start;
+        private final int globalInFlight;
+        private final int groupInFlight;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        private Permit(AimdLimit groupLimit, long start, int globalInFlight, int groupInFlight) {
+            this.groupLimit = groupLimit;
+            this.start = start;
+            this.globalInFlight = globalInFlight;
+            this.groupInFlight = groupInFlight;
+        }
+        
+        // Safe to call more than once, only the first call counts
+        public void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            long latency = System.nanoTime() - start;
+            global.release(latency, globalInFlight);
+            groupLimit.release(latency, groupInFlight);
+        }
+    }
+}
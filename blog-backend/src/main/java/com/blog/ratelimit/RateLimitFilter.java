@@ -0,0 +1,65 @@
+package com.blog.ratelimit;
+
+import com.blog.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Per-IP limits. Runs right after the security chain so a 429 still carries the CORS headers.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        
+        for (RateLimitProperties.Rule rule : rateLimiter.matchingRules(request.getMethod(), path)) {
+            long retryAfter = rateLimiter.tryAcquireForIp(rule, request.getRemoteAddr());
+            if (retryAfter > 0) {
+                reject(response, path, retryAfter);
+                return;
+            }
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    private void reject(HttpServletResponse response, String path, long retryAfter) throws IOException {
+        GlobalExceptionHandler.ErrorResponse error = GlobalExceptionHandler.ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .message("Too many requests, try again later")
+                .path(path)
+                .build();
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
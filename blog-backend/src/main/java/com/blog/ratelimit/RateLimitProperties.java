@@ -0,0 +1,40 @@
+package com.blog.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // How often buckets that have refilled completely are dropped
+    private Duration cleanupInterval = Duration.ofMinutes(1);
+    
+    private List<Rule> rules = new ArrayList<>();
+    
+    @Data
+    public static class Rule {
+        private String name;
+        // Ant-style path pattern, e.g. /api/auth/**
+        private String pattern;
+        // null matches every method
+        private String method;
+        private Limit perIp;
+        private Limit perAccount;
+    }
+    
+    // capacity requests at once, refilled evenly over period
+    @Data
+    public static class Limit {
+        private int capacity;
+        private Duration period;
+    }
+}
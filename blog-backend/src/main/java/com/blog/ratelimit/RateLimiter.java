@@ -0,0 +1,82 @@
+package com.blog.ratelimit;
+
+import com.blog.exception.ApiException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Per-IP and per-account token buckets for the rules in blog.rate-limit. Buckets live in a
+// ConcurrentHashMap (striped by bin) and each one is a single AtomicLong.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimiter {
+    
+    private final RateLimitProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    
+    public List<RateLimitProperties.Rule> matchingRules(String method, String path) {
+        if (!properties.isEnabled()) {
+            return List.of();
+        }
+        return properties.getRules().stream()
+                .filter(rule -> rule.getMethod() == null || rule.getMethod().equalsIgnoreCase(method))
+                .filter(rule -> pathMatcher.match(rule.getPattern(), path))
+                .collect(Collectors.toList());
+    }
+    
+    // Returns 0 when allowed, otherwise the seconds to wait before retrying
+    public long tryAcquireForIp(RateLimitProperties.Rule rule, String ip) {
+        if (rule.getPerIp() == null) {
+            return 0;
+        }
+        return tryAcquire(rule.getName() + "|ip|" + ip, rule.getPerIp());
+    }
+    
+    // Throws TooManyRequestsException when the account used up its budget for the named rule
+    public void checkAccount(String ruleName, String account) {
+        if (!properties.isEnabled() || account == null) {
+            return;
+        }
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            if (rule.getName().equals(ruleName) && rule.getPerAccount() != null) {
+                String key = ruleName + "|account|" + account.trim().toLowerCase(Locale.ROOT);
+                long retryAfter = tryAcquire(key, rule.getPerAccount());
+                if (retryAfter > 0) {
+                    throw new ApiException.TooManyRequestsException(
+                            "Too many attempts for this account, try again later", retryAfter);
+                }
+            }
+        }
+    }
+    
+    // Buckets that refilled completely behave exactly like new ones, so they can go
+    @Scheduled(fixedDelayString = "${blog.rate-limit.cleanup-interval:PT1M}")
+    public void cleanup() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        log.debug("Rate limiter cleanup dropped {} of {} buckets", before - buckets.size(), before);
+    }
+    
+    private long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long now = System.nanoTime();
+        long periodNanos = limit.getPeriod().toNanos();
+        long intervalNanos = periodNanos / Math.max(1, limit.getCapacity());
+        
+        long waitNanos = buckets.computeIfAbsent(key, k -> new TokenBucket(now))
+                .tryAcquire(now, intervalNanos, intervalNanos * limit.getCapacity());
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+    }
+}
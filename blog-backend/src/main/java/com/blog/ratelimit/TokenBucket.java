@@ -0,0 +1,34 @@
+package com.blog.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket kept as a single "theoretical arrival time" (GCRA): the instant the bucket
+// will be full again. Taking a token pushes it one refill interval further; a request is
+// refused when that would put it more than capacity intervals ahead of now. One CAS, no lock.
+class TokenBucket {
+    
+    private final AtomicLong fullAt;
+    
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+    
+    // Returns 0 when a token was taken, otherwise the nanos until one is available
+    long tryAcquire(long now, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
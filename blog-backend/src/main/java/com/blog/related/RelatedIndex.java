@@ -0,0 +1,230 @@
+package com.blog.related;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// For every published post, the most similar other posts by IDF-weighted Jaccard overlap of
+// their features (the category and each tag): the summed weight of the shared features over
+// the summed weight of all features of either post, a feature weighing log(1 + N / posts
+// having it). A change only recomputes the neighborhood it touches; weights drift a little as
+// posts come and go until the next build. Not thread-safe, RelatedPostService serializes access.
+public class RelatedIndex {
+    
+    // Features on more posts than this (a big category) still score but no longer find
+    // candidates, or every post in the category would be compared with every other
+    private static final int MAX_CANDIDATE_POSTINGS = 2000;
+    
+    private static final Comparator<Neighbor> ORDER = Comparator.comparingDouble(Neighbor::getScore).reversed()
+            .thenComparing(Neighbor::getPostId, Comparator.reverseOrder());
+    
+    @Value
+    static class Neighbor {
+        Long postId;
+        double score;
+    }
+    
+    private final int size;
+    
+    private final Map<Long, Set<String>> features = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, List<Neighbor>> neighbors = new HashMap<>();
+    // Reverse of neighbors: the posts whose lists include the key
+    private final Map<Long, Set<Long>> listedBy = new HashMap<>();
+    
+    public RelatedIndex(int size) {
+        this.size = size;
+    }
+    
+    public static String categoryFeature(String slug) {
+        return "category:" + slug;
+    }
+    
+    public static String tagFeature(String slug) {
+        return "tag:" + slug;
+    }
+    
+    // Replaces everything with the given posts and computes every list
+    public void build(Map<Long, Set<String>> posts) {
+        features.clear();
+        postings.clear();
+        neighbors.clear();
+        listedBy.clear();
+        posts.forEach(this::index);
+        for (Long postId : posts.keySet()) {
+            setNeighbors(postId, compute(postId));
+        }
+    }
+    
+    // Most similar first
+    public List<Long> neighbors(Long postId) {
+        List<Long> ids = new ArrayList<>();
+        neighbors.getOrDefault(postId, List.of()).forEach(neighbor -> ids.add(neighbor.getPostId()));
+        return ids;
+    }
+    
+    public int size() {
+        return features.size();
+    }
+    
+    // New features of a post, or null once it is no longer published. Only the post's own list
+    // and the lists of posts it was or could become related to are touched.
+    public void update(Long postId, Set<String> newFeatures) {
+        Set<String> old = features.get(postId);
+        if (old == null ? newFeatures == null : old.equals(newFeatures)) {
+            return;
+        }
+    
+        Set<Long> affected = new HashSet<>(listedBy.getOrDefault(postId, Set.of()));
+        unindex(postId);
+        if (newFeatures == null) {
+            setNeighbors(postId, List.of());
+        } else {
+            index(postId, newFeatures);
+            affected.addAll(candidates(postId));
+            setNeighbors(postId, compute(postId));
+        }
+    
+        for (Long other : affected) {
+            if (features.containsKey(other)) {
+                reconsider(other, postId);
+            }
+        }
+    }
+    
+    // Category slugs are features, so a rename rekeys them; no score changes
+    public void renameFeature(String from, String to) {
+        Set<Long> posts = postings.remove(from);
+        if (posts == null) {
+            return;
+        }
+        postings.computeIfAbsent(to, feature -> new HashSet<>()).addAll(posts);
+        for (Long postId : posts) {
+            Set<String> renamed = new HashSet<>(features.get(postId));
+            renamed.remove(from);
+            renamed.add(to);
+            features.put(postId, Set.copyOf(renamed));
+        }
+    }
+    
+    double similarity(Long a, Long b) {
+        Set<String> left = features.get(a);
+        Set<String> right = features.get(b);
+        if (left == null || right == null) {
+            return 0;
+        }
+        double shared = 0;
+        double union = 0;
+        for (String feature : left) {
+            double weight = weight(feature);
+            union += weight;
+            if (right.contains(feature)) {
+                shared += weight;
+            }
+        }
+        for (String feature : right) {
+            if (!left.contains(feature)) {
+                union += weight(feature);
+            }
+        }
+        return union == 0 ? 0 : shared / union;
+    }
+    
+    // Fixes other's list after changed moved: updated in place, or recomputed when a listed
+    // post lost score and a post further down may now rank above it
+    private void reconsider(Long other, Long changed) {
+        List<Neighbor> list = new ArrayList<>(neighbors.getOrDefault(other, List.of()));
+        Neighbor previous = list.stream()
+                .filter(neighbor -> neighbor.getPostId().equals(changed))
+                .findFirst()
+                .orElse(null);
+        double score = similarity(other, changed);
+    
+        if (previous != null && score < previous.getScore()) {
+            setNeighbors(other, compute(other));
+            return;
+        }
+        list.remove(previous);
+        if (score > 0) {
+            list.add(new Neighbor(changed, score));
+            list.sort(ORDER);
+        }
+        setNeighbors(other, list.size() > size ? list.subList(0, size) : list);
+    }
+    
+    private List<Neighbor> compute(Long postId) {
+        List<Neighbor> scored = new ArrayList<>();
+        for (Long candidate : candidates(postId)) {
+            double score = similarity(postId, candidate);
+            if (score > 0) {
+                scored.add(new Neighbor(candidate, score));
+            }
+        }
+        scored.sort(ORDER);
+        return scored.size() > size ? new ArrayList<>(scored.subList(0, size)) : scored;
+    }
+    
+    private Set<Long> candidates(Long postId) {
+        Set<Long> candidates = new HashSet<>();
+        for (String feature : features.getOrDefault(postId, Set.of())) {
+            Set<Long> posts = postings.getOrDefault(feature, Set.of());
+            if (posts.size() <= MAX_CANDIDATE_POSTINGS) {
+                candidates.addAll(posts);
+            }
+        }
+        candidates.remove(postId);
+        return candidates;
+    }
+    
+    private double weight(String feature) {
+        int posts = postings.getOrDefault(feature, Set.of()).size();
+        return posts == 0 ? 0 : Math.log(1 + (double) features.size() / posts);
+    }
+    
+    private void setNeighbors(Long postId, List<Neighbor> list) {
+        for (Neighbor previous : neighbors.getOrDefault(postId, List.of())) {
+            Set<Long> listers = listedBy.get(previous.getPostId());
+            if (listers != null) {
+                listers.remove(postId);
+                if (listers.isEmpty()) {
+                    listedBy.remove(previous.getPostId());
+                }
+            }
+        }
+        if (list.isEmpty()) {
+            neighbors.remove(postId);
+            return;
+        }
+        neighbors.put(postId, List.copyOf(list));
+        for (Neighbor neighbor : list) {
+            listedBy.computeIfAbsent(neighbor.getPostId(), id -> new HashSet<>()).add(postId);
+        }
+    }
+    
+    private void index(Long postId, Set<String> postFeatures) {
+        features.put(postId, Set.copyOf(postFeatures));
+        for (String feature : postFeatures) {
+            postings.computeIfAbsent(feature, f -> new HashSet<>()).add(postId);
+        }
+    }
+    
+    private void unindex(Long postId) {
+        Set<String> old = features.remove(postId);
+        if (old == null) {
+            return;
+        }
+        for (String feature : old) {
+            Set<Long> posts = postings.get(feature);
+            posts.remove(postId);
+            if (posts.isEmpty()) {
+                postings.remove(feature);
+            }
+        }
+    }
+}
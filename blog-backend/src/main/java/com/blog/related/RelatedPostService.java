@@ -0,0 +1,183 @@
+package com.blog.related;
+
+import com.blog.cache.SlugIndexes;
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.PostStatus;
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.exception.ApiException;
+import com.blog.repository.PostRepository;
+import com.blog.service.PostService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Related posts for every published post, precomputed by RelatedIndex. Built at startup and
+// rebuilt periodically to settle the feature weights; in between, post and category changes
+// update the index after commit. Finished lists are kept per post until the index changes.
+@Slf4j
+@Service
+public class RelatedPostService {
+    
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final SlugIndexes slugIndexes;
+    private final Timer buildTimer;
+    private final int size;
+    
+    private final Object lock = new Object();
+    // Replaced whole by a rebuild; guarded by lock
+    private RelatedIndex index;
+    // Changes seen while a build was running, replayed over its result; null when not building
+    private Map<Long, Set<String>> changedDuringBuild;
+    
+    private final Map<Long, List<PostResponse>> lists = new ConcurrentHashMap<>();
+    // Bumped by every change, so a list built from an older index is never cached
+    private final AtomicLong generation = new AtomicLong();
+    
+    public RelatedPostService(
+            PostRepository postRepository,
+            PostService postService,
+            SlugIndexes slugIndexes,
+            MeterRegistry meterRegistry,
+            @Value("${blog.related.size:5}") int size) {
+        this.postRepository = postRepository;
+        this.postService = postService;
+        this.slugIndexes = slugIndexes;
+        this.size = size;
+        this.index = new RelatedIndex(size);
+        this.buildTimer = meterRegistry.timer("blog.related.build.time");
+    
+        Gauge.builder("blog.related.posts", this, RelatedPostService::indexSize)
+                .description("Published posts in the related posts index")
+                .register(meterRegistry);
+    }
+    
+    public List<PostResponse> getRelatedPosts(String slug) {
+        Long postId = slugIndexes.posts().findId(slug)
+                .orElseThrow(() -> new ApiException.ResourceNotFoundException("Post not found"));
+    
+        List<PostResponse> cached = lists.get(postId);
+        if (cached != null) {
+            return cached;
+        }
+    
+        long seen = generation.get();
+        List<Long> ids;
+        synchronized (lock) {
+            ids = index.neighbors(postId);
+        }
+        List<PostResponse> posts = List.copyOf(postService.getPostsByIds(ids));
+        if (generation.get() == seen) {
+            lists.put(postId, posts);
+        }
+        return posts;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+    
+    // Feature weights move as posts come and go; a full build brings every list up to date. The
+    // new index is built aside, so reads and post writes only wait for the replay and the swap
+    @Scheduled(fixedDelayString = "${blog.related.rebuild-interval:PT1H}",
+               initialDelayString = "${blog.related.rebuild-interval:PT1H}")
+    public void rebuild() {
+        synchronized (lock) {
+            if (changedDuringBuild != null) {
+                return;
+            }
+            changedDuringBuild = new HashMap<>();
+        }
+    
+        try {
+            Map<Long, Set<String>> posts = new HashMap<>();
+            postService.getPublishedStates(postRepository.findAllIdsByStatus(PostStatus.PUBLISHED))
+                    .forEach((postId, state) -> posts.put(postId, features(state)));
+    
+            buildTimer.record(() -> {
+                RelatedIndex built = new RelatedIndex(size);
+                built.build(posts);
+                synchronized (lock) {
+                    changedDuringBuild.forEach(built::update);
+                    index = built;
+                }
+            });
+            log.info("Related posts index built for {} posts", posts.size());
+        } finally {
+            synchronized (lock) {
+                changedDuringBuild = null;
+            }
+        }
+        invalidateAll();
+    }
+    
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        // Drafts are never in the index
+        if (!event.isPublicChange()) {
+            return;
+        }
+    
+        PostChangedEvent.PostState after = event.getAfter();
+        Set<String> features = after != null && after.isPublished() ? features(after) : null;
+        synchronized (lock) {
+            index.update(event.getPostId(), features);
+            if (changedDuringBuild != null) {
+                changedDuringBuild.put(event.getPostId(), features);
+            }
+        }
+        // Titles and excerpts are in the lists too
+        invalidateAll();
+    }
+    
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getPreviousSlug() == null || event.getSlug() == null
+                || event.getPreviousSlug().equals(event.getSlug())) {
+            return;
+        }
+        synchronized (lock) {
+            // A build running right now may have read the old slug; the next build corrects it
+            index.renameFeature(RelatedIndex.categoryFeature(event.getPreviousSlug()),
+                    RelatedIndex.categoryFeature(event.getSlug()));
+        }
+        invalidateAll();
+    }
+    
+    private static Set<String> features(PostChangedEvent.PostState state) {
+        Set<String> features = new HashSet<>();
+        features.add(RelatedIndex.categoryFeature(state.getCategorySlug()));
+        state.getTagSlugs().forEach(tag -> features.add(RelatedIndex.tagFeature(tag)));
+        return features;
+    }
+    
+    private double indexSize() {
+        synchronized (lock) {
+            return index.size();
+        }
+    }
+    
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        lists.clear();
+    }
+}
@@ -1,8 +1,12 @@
 package com.blog.repository;
 
+import com.blog.dto.projection.SlugId;
 import com.blog.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
@@ -12,4 +16,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
     
     boolean existsBySlug(String slug);
+    
+    @Query("SELECT new com.blog.dto.projection.SlugId(c.slug, c.id) FROM Category c")
+    List<SlugId> findAllSlugIds();
+    
+    @Query("SELECT c.id FROM Category c WHERE c.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
 }
@@ -0,0 +1,19 @@
+package com.blog.repository;
+
+import com.blog.entity.Image;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ImageRepository extends JpaRepository<Image, String> {
+    
+    @Query("SELECT i.hash FROM Image i WHERE i.variantsReady = false")
+    List<String> findHashesWithoutVariants();
+    
+    @Modifying
+    @Query("UPDATE Image i SET i.variantsReady = true WHERE i.hash = :hash")
+    int markVariantsReady(@Param("hash") String hash);
+}
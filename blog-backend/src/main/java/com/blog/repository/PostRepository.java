@@ -1,62 +1,166 @@
 package com.blog.repository;
 
+import com.blog.dto.projection.PostLocation;
+import com.blog.dto.projection.PostSearchDocument;
+import com.blog.dto.projection.PostSummary;
+import com.blog.dto.projection.PostTagSummary;
+import com.blog.dto.projection.PostValidator;
+import com.blog.dto.projection.SlugCount;
+import com.blog.dto.projection.SlugId;
+import com.blog.dto.projection.StatusCount;
 import com.blog.entity.Post;
 import com.blog.entity.PostStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
     
-    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.slug = :slug")
-    Optional<Post> findBySlugWithDetails(@Param("slug") String slug);
+    // Detail lookups go through SlugIndexes and hit the primary key
+    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.id = :id")
+    Optional<Post> findByIdWithDetails(@Param("id") Long id);
     
     Optional<Post> findBySlug(String slug);
     
+    // Row lock on the post, held until commit: revision writes and compaction of one post take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Post p WHERE p.id = :id")
+    Optional<Post> findLockedById(@Param("id") Long id);
+    
+    @Query("SELECT new com.blog.dto.projection.PostValidator(p.id, p.slug, p.status, p.updatedAt) FROM Post p WHERE p.id = :id")
+    Optional<PostValidator> findValidatorById(@Param("id") Long id);
+    
     boolean existsBySlug(String slug);
     
+    // Slug index load and its fallback until then
+    @Query("SELECT new com.blog.dto.projection.SlugId(p.slug, p.id) FROM Post p")
+    List<SlugId> findAllSlugIds();
+    
+    @Query("SELECT p.id FROM Post p WHERE p.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+    
+    // Feed queries select one page of ids in SQL (LIMIT/OFFSET), the page is hydrated
+    // afterwards with findSummariesByIdIn and findTagSummariesByPostIdIn. Never JOIN FETCH here.
+    
     // Public posts (PUBLISHED only)
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.status = :status ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p WHERE p.status = :status")
-    Page<Post> findByStatusOrderByCreatedAtDesc(@Param("status") PostStatus status, Pageable pageable);
+    @Query(value = "SELECT p.id FROM Post p WHERE p.status = :status ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.status = :status")
+    Page<Long> findIdsByStatus(@Param("status") PostStatus status, Pageable pageable);
     
-    // Admin: Get all posts with eager loading
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.status = :status ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p WHERE p.status = :status")
-    Page<Post> findAllByStatusWithAuthorAndCategory(@Param("status") PostStatus status, Pageable pageable);
+    // Admin: one page of ids without a count query, the total comes from CounterService
+    @Query("SELECT p.id FROM Post p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdPage(Pageable pageable);
     
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p")
-    Page<Post> findAllWithAuthorAndCategory(Pageable pageable);
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdPageByStatus(@Param("status") PostStatus status, Pageable pageable);
     
     // Posts by author
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.author.id = :authorId ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p WHERE p.author.id = :authorId")
-    Page<Post> findByAuthorIdOrderByCreatedAtDesc(@Param("authorId") Long authorId, Pageable pageable);
+    @Query(value = "SELECT p.id FROM Post p WHERE p.author.id = :authorId ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId")
+    Page<Long> findIdsByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
     
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.author.id = :authorId AND p.status = :status ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p WHERE p.author.id = :authorId AND p.status = :status")
-    Page<Post> findByAuthorIdAndStatusOrderByCreatedAtDesc(@Param("authorId") Long authorId, @Param("status") PostStatus status, Pageable pageable);
+    @Query(value = "SELECT p.id FROM Post p WHERE p.author.id = :authorId AND p.status = :status ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.author.id = :authorId AND p.status = :status")
+    Page<Long> findIdsByAuthorIdAndStatus(@Param("authorId") Long authorId, @Param("status") PostStatus status, Pageable pageable);
     
     // Posts by category (PUBLISHED only)
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.category.slug = :categorySlug AND p.status = :status ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p WHERE p.category.slug = :categorySlug AND p.status = :status")
-    Page<Post> findByCategorySlugAndStatusOrderByCreatedAtDesc(@Param("categorySlug") String categorySlug, @Param("status") PostStatus status, Pageable pageable);
+    @Query(value = "SELECT p.id FROM Post p WHERE p.category.id = :categoryId AND p.status = :status ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.category.id = :categoryId AND p.status = :status")
+    Page<Long> findIdsByCategoryIdAndStatus(@Param("categoryId") Long categoryId, @Param("status") PostStatus status, Pageable pageable);
     
-    // Posts by tag (PUBLISHED only)
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags t WHERE t.slug = :tagSlug AND p.status = :status ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status")
-    Page<Post> findByTagSlugAndStatus(@Param("tagSlug") String tagSlug, @Param("status") PostStatus status, Pageable pageable);
+    // Posts by tag (PUBLISHED only). Tag slugs are unique, so the join yields one row per post.
+    @Query(value = "SELECT p.id FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status")
+    Page<Long> findIdsByTagSlugAndStatus(@Param("tagSlug") String tagSlug, @Param("status") PostStatus status, Pageable pageable);
     
     // Search posts (PUBLISHED only)
-    @Query(value = "SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.author LEFT JOIN FETCH p.category LEFT JOIN FETCH p.tags WHERE p.status = :status AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) ORDER BY p.createdAt DESC",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Post p WHERE p.status = :status AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Post> searchByKeyword(@Param("keyword") String keyword, @Param("status") PostStatus status, Pageable pageable);
+    @Query(value = "SELECT p.id FROM Post p WHERE p.status = :status AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%'))) ORDER BY p.createdAt DESC, p.id DESC",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.status = :status AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<Long> searchIdsByKeyword(@Param("keyword") String keyword, @Param("status") PostStatus status, Pageable pageable);
+    
+    // Keyset feeds (PUBLISHED only): seek past (createdAt, id) instead of OFFSET, no count query
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFirstIdsByStatus(@Param("status") PostStatus status, Pageable pageable);
+    
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdsByStatusAfter(@Param("status") PostStatus status, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT p.id FROM Post p WHERE p.category.id = :categoryId AND p.status = :status ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFirstIdsByCategoryIdAndStatus(@Param("categoryId") Long categoryId, @Param("status") PostStatus status, Pageable pageable);
+    
+    @Query("SELECT p.id FROM Post p WHERE p.category.id = :categoryId AND p.status = :status AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdsByCategoryIdAndStatusAfter(@Param("categoryId") Long categoryId, @Param("status") PostStatus status, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT p.id FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findFirstIdsByTagSlugAndStatus(@Param("tagSlug") String tagSlug, @Param("status") PostStatus status, Pageable pageable);
+    
+    @Query("SELECT p.id FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findIdsByTagSlugAndStatusAfter(@Param("tagSlug") String tagSlug, @Param("status") PostStatus status, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Hydrate one page of posts as summaries (no content column), tags in a second batched query
+    @Query("SELECT new com.blog.dto.projection.PostSummary(p.id, p.title, p.slug, p.excerpt, p.featuredImage, p.status, p.wordCount, p.readingTime, p.createdAt, p.updatedAt, a.id, a.username, c.id, c.name, c.slug) " +
+           "FROM Post p JOIN p.author a JOIN p.category c WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.blog.dto.projection.PostTagSummary(p.id, t.id, t.name, t.slug) FROM Post p JOIN p.tags t WHERE p.id IN :ids")
+    List<PostTagSummary> findTagSummariesByPostIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Search index rebuild and incremental updates
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status ORDER BY p.id")
+    List<Long> findAllIdsByStatus(@Param("status") PostStatus status);
+    
+    // Stored plain text when the post has been rendered, the editor HTML only when it has not
+    @Query("SELECT new com.blog.dto.projection.PostSearchDocument(p.id, p.title, r.plainText, " +
+           "CASE WHEN r.hash IS NULL THEN p.content ELSE NULL END, p.status) " +
+           "FROM Post p LEFT JOIN RenderedContent r ON r.hash = p.contentHash WHERE p.id IN :ids")
+    List<PostSearchDocument> findSearchDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Posts never rendered, or rendered by an older pipeline version, in id order from a cursor
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId AND NOT EXISTS (" +
+           "SELECT r.hash FROM RenderedContent r WHERE r.hash = p.contentHash AND r.pipelineVersion = :version) " +
+           "ORDER BY p.id")
+    List<Long> findIdsNeedingRender(@Param("afterId") Long afterId, @Param("version") int version, Pageable pageable);
+    
+    // Sitemaps: page boundaries by offset, then each page in id order from a cursor
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status ORDER BY p.id")
+    List<Long> findIdPageByStatusOrderById(@Param("status") PostStatus status, Pageable pageable);
+    
+    @Query("SELECT new com.blog.dto.projection.PostLocation(p.id, p.slug, p.updatedAt) FROM Post p " +
+           "WHERE p.status = :status AND p.id > :afterId AND p.id < :beforeId ORDER BY p.id")
+    List<PostLocation> findLocationsBetween(@Param("status") PostStatus status, @Param("afterId") Long afterId,
+                                            @Param("beforeId") Long beforeId, Pageable pageable);
+    
+    long countByStatus(PostStatus status);
+    
+    // Bulk update on purpose: keeps updatedAt untouched
+    // Only if the post is unchanged since it was read; an edit meanwhile rendered its own content
+    @Modifying
+    @Query("UPDATE Post p SET p.contentHash = :hash, p.excerpt = :excerpt, p.wordCount = :wordCount, " +
+           "p.readingTime = :readingTime WHERE p.id = :id AND p.updatedAt = :updatedAt")
+    int updateRendering(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt, @Param("hash") String hash,
+                        @Param("excerpt") String excerpt, @Param("wordCount") int wordCount,
+                        @Param("readingTime") int readingTime);
     
     // Count posts by category
     long countByCategoryId(Long categoryId);
+    
+    // Counter reconciliation
+    @Query("SELECT new com.blog.dto.projection.StatusCount(p.status, COUNT(p)) FROM Post p GROUP BY p.status")
+    List<StatusCount> countGroupByStatus();
+    
+    @Query("SELECT new com.blog.dto.projection.SlugCount(c.slug, COUNT(p)) FROM Post p JOIN p.category c WHERE p.status = :status GROUP BY c.slug")
+    List<SlugCount> countByStatusGroupByCategory(@Param("status") PostStatus status);
+    
+    @Query("SELECT new com.blog.dto.projection.SlugCount(t.slug, COUNT(p)) FROM Post p JOIN p.tags t WHERE p.status = :status GROUP BY t.slug")
+    List<SlugCount> countByStatusGroupByTag(@Param("status") PostStatus status);
 }
@@ -0,0 +1,40 @@
+package com.blog.repository;
+
+import com.blog.dto.projection.RevisionSummary;
+import com.blog.entity.PostRevision;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PostRevisionRepository extends JpaRepository<PostRevision, Long> {
+    
+    // Callers lock the post row first (PostRepository.findLockedById)
+    Optional<PostRevision> findFirstByPostIdOrderByNumberDesc(Long postId);
+    
+    Optional<PostRevision> findByPostIdAndNumber(Long postId, int number);
+    
+    // A revision's delta chain: its base snapshot through the revision itself
+    @Query("SELECT r FROM PostRevision r WHERE r.postId = :postId AND r.number BETWEEN :base AND :number ORDER BY r.number")
+    List<PostRevision> findChain(@Param("postId") Long postId, @Param("base") int base, @Param("number") int number);
+    
+    List<PostRevision> findByPostIdOrderByNumber(Long postId);
+    
+    // Newest first, keyset paginated below :before
+    @Query("SELECT new com.blog.dto.projection.RevisionSummary(r.number, r.title, r.contentLength, r.createdAt, u.id, u.username) " +
+           "FROM PostRevision r LEFT JOIN User u ON u.id = r.authorId " +
+           "WHERE r.postId = :postId AND r.number < :before ORDER BY r.number DESC")
+    List<RevisionSummary> findSummaries(@Param("postId") Long postId, @Param("before") int before, Pageable pageable);
+    
+    @Query("SELECT DISTINCT r.postId FROM PostRevision r WHERE r.compacted = false AND r.createdAt < :before")
+    List<Long> findPostIdsToCompact(@Param("before") LocalDateTime before, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM PostRevision r WHERE r.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
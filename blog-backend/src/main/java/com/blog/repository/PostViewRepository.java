@@ -0,0 +1,23 @@
+package com.blog.repository;
+
+import com.blog.dto.projection.PostViews;
+import com.blog.entity.PostStatus;
+import com.blog.entity.PostView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostViewRepository extends JpaRepository<PostView, Long>, PostViewRepositoryCustom {
+    
+    @Query("SELECT new com.blog.dto.projection.PostViews(v.postId, v.views) FROM PostView v, Post p " +
+           "WHERE p.id = v.postId AND p.status = :status ORDER BY v.views DESC, v.postId DESC")
+    List<PostViews> findMostViewed(@Param("status") PostStatus status, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM PostView v WHERE v.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
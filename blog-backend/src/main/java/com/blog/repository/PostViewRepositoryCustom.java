@@ -0,0 +1,12 @@
+package com.blog.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface PostViewRepositoryCustom {
+    
+    // Adds each delta to its post's total in two batches: one creating missing rows, one
+    // incrementing. Concurrent flushes from several instances add up correctly. Returns the ids
+    // of posts that no longer exist, whose views were dropped.
+    Set<Long> addViews(Map<Long, Long> deltas);
+}
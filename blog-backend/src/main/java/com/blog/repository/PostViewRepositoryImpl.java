@@ -0,0 +1,51 @@
+package com.blog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ON CONFLICT DO NOTHING: PostgreSQL, and H2 in MODE=PostgreSQL
+@RequiredArgsConstructor
+public class PostViewRepositoryImpl implements PostViewRepositoryCustom {
+    
+    // Only for posts that still exist: post_views has no foreign key, and a view recorded just
+    // after its post was deleted must not leave a row behind
+    private static final String INSERT_SQL =
+            "INSERT INTO post_views (post_id, views) SELECT id, 0 FROM posts WHERE id = ? ON CONFLICT DO NOTHING";
+    private static final String INCREMENT_SQL =
+            "UPDATE post_views SET views = views + ? WHERE post_id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public Set<Long> addViews(Map<Long, Long> deltas) {
+        Set<Long> missing = new HashSet<>();
+        if (deltas.isEmpty()) {
+            return missing;
+        }
+        
+        // Sorted, so concurrent flushes lock rows in the same order
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+        
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(),
+                (statement, entry) -> statement.setLong(1, entry.getKey()));
+        int[] results = jdbcTemplate.batchUpdate(INCREMENT_SQL, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getValue());
+            statement.setLong(2, entry.getKey());
+        })[0];
+        
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == 0) {
+                missing.add(entries.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+}
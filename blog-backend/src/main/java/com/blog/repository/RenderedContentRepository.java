@@ -0,0 +1,14 @@
+package com.blog.repository;
+
+import com.blog.entity.RenderedContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface RenderedContentRepository extends JpaRepository<RenderedContent, String> {
+    
+    // Renderings left behind by edits and deletes
+    @Modifying
+    @Query("DELETE FROM RenderedContent r WHERE NOT EXISTS (SELECT p.id FROM Post p WHERE p.contentHash = r.hash)")
+    int deleteUnreferenced();
+}
@@ -2,15 +2,24 @@ package com.blog.repository;
 
 import com.blog.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
     
     Optional<Tag> findBySlug(String slug);
     
     Optional<Tag> findByName(String name);
     
+    List<Tag> findByNameIn(Collection<String> names);
+    
+    @Query("SELECT t.slug FROM Tag t WHERE t.slug IN :slugs")
+    List<String> findSlugsIn(@Param("slugs") Collection<String> slugs);
+    
     boolean existsByName(String name);
     
     boolean existsBySlug(String slug);
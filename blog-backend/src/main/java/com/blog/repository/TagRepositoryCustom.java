@@ -0,0 +1,12 @@
+package com.blog.repository;
+
+import com.blog.entity.Tag;
+
+import java.util.List;
+
+public interface TagRepositoryCustom {
+    
+    // Inserts all tags in one batch, silently skipping rows that hit a unique constraint.
+    // Returns how many rows were actually inserted.
+    int insertIgnoringConflicts(List<Tag> tags);
+}
@@ -0,0 +1,42 @@
+package com.blog.repository;
+
+import com.blog.entity.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// ON CONFLICT DO NOTHING: PostgreSQL, and H2 in MODE=PostgreSQL
+@RequiredArgsConstructor
+public class TagRepositoryImpl implements TagRepositoryCustom {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO tags (name, slug, created_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public int insertIgnoringConflicts(List<Tag> tags) {
+        if (tags.isEmpty()) {
+            return 0;
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] results = jdbcTemplate.batchUpdate(INSERT_SQL, tags, tags.size(), (statement, tag) -> {
+            statement.setString(1, tag.getName());
+            statement.setString(2, tag.getSlug());
+            statement.setTimestamp(3, now);
+        })[0];
+        
+        int inserted = 0;
+        for (int result : results) {
+            if (result > 0 || result == Statement.SUCCESS_NO_INFO) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,7 @@
+package com.blog.repository;
+
+import com.blog.entity.TrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Long>, TrendingScoreRepositoryCustom {
+}
@@ -0,0 +1,10 @@
+package com.blog.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface TrendingScoreRepositoryCustom {
+    
+    // Replaces the whole snapshot: one DELETE, then the scores in one batch
+    void replaceAll(Map<Long, Double> scores, LocalDateTime savedAt);
+}
@@ -0,0 +1,34 @@
+package com.blog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TrendingScoreRepositoryImpl implements TrendingScoreRepositoryCustom {
+    
+    private static final String INSERT_SQL = "INSERT INTO trending_scores (post_id, score, saved_at) VALUES (?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public void replaceAll(Map<Long, Double> scores, LocalDateTime savedAt) {
+        jdbcTemplate.update("DELETE FROM trending_scores");
+        if (scores.isEmpty()) {
+            return;
+        }
+    
+        Timestamp timestamp = Timestamp.valueOf(savedAt);
+        List<Map.Entry<Long, Double>> entries = new ArrayList<>(scores.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, 1000, (statement, entry) -> {
+            statement.setLong(1, entry.getKey());
+            statement.setDouble(2, entry.getValue());
+            statement.setTimestamp(3, timestamp);
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package com.blog.revision;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Compressed snapshots and copy/insert deltas of revision content, both deflated.
+// A delta is a sequence of ops against the previous content:
+//   COPY   varint offset, varint length  - bytes taken from the previous content
+//   INSERT varint length, bytes          - new bytes
+// Matches are found by indexing the previous content in fixed blocks, as git's delta does, and
+// extending each block hit in both directions, so an edit costs roughly its own size.
+final class DeltaCodec {
+    
+    private static final int BLOCK = 16;
+    private static final int COPY = 0;
+    private static final int INSERT = 1;
+    
+    private DeltaCodec() {
+    }
+    
+    static byte[] snapshot(byte[] content) {
+        return deflate(content);
+    }
+    
+    static byte[] restoreSnapshot(byte[] data) {
+        return inflate(data);
+    }
+    
+    static byte[] delta(byte[] base, byte[] target) {
+        Map<Integer, Integer> blocks = new HashMap<>();
+        for (int offset = 0; offset + BLOCK <= base.length; offset += BLOCK) {
+            blocks.putIfAbsent(hash(base, offset), offset);
+        }
+    
+        ByteArrayOutputStream ops = new ByteArrayOutputStream();
+        int insertStart = 0;
+        int i = 0;
+        while (i + BLOCK <= target.length) {
+            Integer candidate = blocks.get(hash(target, i));
+            if (candidate == null || !regionEquals(base, candidate, target, i, BLOCK)) {
+                i++;
+                continue;
+            }
+            int copyStart = candidate;
+            int targetStart = i;
+            while (copyStart > 0 && targetStart > insertStart && base[copyStart - 1] == target[targetStart - 1]) {
+                copyStart--;
+                targetStart--;
+            }
+            int copyEnd = candidate + BLOCK;
+            int targetEnd = i + BLOCK;
+            while (copyEnd < base.length && targetEnd < target.length && base[copyEnd] == target[targetEnd]) {
+                copyEnd++;
+                targetEnd++;
+            }
+            insert(ops, target, insertStart, targetStart);
+            ops.write(COPY);
+            writeVarint(ops, copyStart);
+            writeVarint(ops, copyEnd - copyStart);
+            i = targetEnd;
+            insertStart = targetEnd;
+        }
+        insert(ops, target, insertStart, target.length);
+        return deflate(ops.toByteArray());
+    }
+    
+    static byte[] apply(byte[] base, byte[] delta) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(base.length);
+        try (InputStream ops = new InflaterInputStream(new ByteArrayInputStream(delta))) {
+            int op;
+            while ((op = ops.read()) >= 0) {
+                if (op == COPY) {
+                    int offset = readVarint(ops);
+                    int length = readVarint(ops);
+                    out.write(base, offset, length);
+                } else if (op == INSERT) {
+                    int length = readVarint(ops);
+                    byte[] bytes = ops.readNBytes(length);
+                    if (bytes.length != length) {
+                        throw new IllegalStateException("Truncated revision delta");
+                    }
+                    out.write(bytes);
+                } else {
+                    throw new IllegalStateException("Unknown revision delta op " + op);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    private static void insert(ByteArrayOutputStream ops, byte[] target, int from, int to) {
+        if (to > from) {
+            ops.write(INSERT);
+            writeVarint(ops, to - from);
+            ops.write(target, from, to - from);
+        }
+    }
+    
+    private static int hash(byte[] bytes, int offset) {
+        int hash = 1;
+        for (int i = offset; i < offset + BLOCK; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+    
+    private static boolean regionEquals(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] != b[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+    
+    private static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IllegalStateException("Truncated revision delta");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed revision delta varint");
+    }
+    
+    private static byte[] deflate(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 16);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+            deflate.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] inflate(byte[] bytes) {
+        try (InputStream inflate = new InflaterInputStream(new ByteArrayInputStream(bytes))) {
+            return inflate.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.blog.revision;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Unified diff of two revisions. Editor HTML has few newlines, so lines are also broken before
+// block-level tags; the title is the first line.
+final class LineDiff {
+    
+    private static final int CONTEXT = 3;
+    // Past this many edits the changed middle is shown as removed and re-added, which keeps the
+    // Myers trace (quadratic in edits) small
+    private static final int MAX_EDITS = 2000;
+    private static final Pattern LINE_BREAK = Pattern.compile(
+            "\\R|(?=<(?:p|h[1-6]|ul|ol|li|pre|blockquote|figure|img|table|thead|tbody|tr|hr)[\\s>/])");
+    
+    private LineDiff() {
+    }
+    
+    static List<String> lines(String title, String content) {
+        List<String> lines = new ArrayList<>();
+        lines.add("# " + title);
+        for (String line : LINE_BREAK.split(content)) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+    
+    static void writeUnified(List<String> a, List<String> b, String fromLabel, String toLabel, Writer out)
+            throws IOException {
+        char[] ops = script(a, b);
+        int[] aPos = new int[ops.length + 1];
+        int[] bPos = new int[ops.length + 1];
+        for (int i = 0; i < ops.length; i++) {
+            aPos[i + 1] = aPos[i] + (ops[i] != '+' ? 1 : 0);
+            bPos[i + 1] = bPos[i] + (ops[i] != '-' ? 1 : 0);
+        }
+    
+        out.write("--- " + fromLabel + "\n");
+        out.write("+++ " + toLabel + "\n");
+        int done = 0;
+        int change = nextChange(ops, 0);
+        while (change >= 0) {
+            int start = Math.max(done, change - CONTEXT);
+            int end = change + 1;
+            int next = nextChange(ops, end);
+            while (next >= 0 && next - end <= 2 * CONTEXT) {
+                end = next + 1;
+                next = nextChange(ops, end);
+            }
+            end = Math.min(ops.length, end + CONTEXT);
+    
+            out.write("@@ -" + range(aPos[start], aPos[end] - aPos[start])
+                    + " +" + range(bPos[start], bPos[end] - bPos[start]) + " @@\n");
+            for (int i = start; i < end; i++) {
+                out.write(ops[i]);
+                out.write(ops[i] == '+' ? b.get(bPos[i]) : a.get(aPos[i]));
+                out.write('\n');
+            }
+            done = end;
+            change = next;
+        }
+    }
+    
+    // One op per line of the merged sequence: ' ' in both, '-' only in a, '+' only in b
+    static char[] script(List<String> a, List<String> b) {
+        int prefix = 0;
+        while (prefix < a.size() && prefix < b.size() && a.get(prefix).equals(b.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.size() - prefix && suffix < b.size() - prefix
+                && a.get(a.size() - 1 - suffix).equals(b.get(b.size() - 1 - suffix))) {
+            suffix++;
+        }
+    
+        StringBuilder ops = new StringBuilder(a.size() + b.size());
+        ops.append(" ".repeat(prefix));
+        myers(a.subList(prefix, a.size() - suffix), b.subList(prefix, b.size() - suffix), ops);
+        ops.append(" ".repeat(suffix));
+        return ops.toString().toCharArray();
+    }
+    
+    private static void myers(List<String> a, List<String> b, StringBuilder ops) {
+        int n = a.size();
+        int m = b.size();
+        int offset = n + m + 1;
+        int[] v = new int[2 * offset + 1];
+        List<int[]> trace = new ArrayList<>();
+        int edits = -1;
+    
+        for (int d = 0; d <= Math.min(n + m, MAX_EDITS) && edits < 0; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    edits = d;
+                    break;
+                }
+            }
+            trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+        }
+    
+        if (edits < 0) {
+            ops.append("-".repeat(n)).append("+".repeat(m));
+            return;
+        }
+    
+        StringBuilder reversed = new StringBuilder();
+        int x = n;
+        int y = m;
+        for (int d = edits; d > 0; d--) {
+            int[] previous = trace.get(d - 1);
+            int k = x - y;
+            int previousK = k == -d || (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1]) ? k + 1 : k - 1;
+            int previousX = previous[previousK + d - 1];
+            int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                reversed.append(' ');
+                x--;
+                y--;
+            }
+            reversed.append(x == previousX ? '+' : '-');
+            x = previousX;
+            y = previousY;
+        }
+        while (x > 0 && y > 0) {
+            reversed.append(' ');
+            x--;
+            y--;
+        }
+        ops.append(reversed.reverse());
+    }
+    
+    private static int nextChange(char[] ops, int from) {
+        for (int i = from; i < ops.length; i++) {
+            if (ops[i] != ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static String range(int start, int count) {
+        return (count == 0 ? start : start + 1) + "," + count;
+    }
+}
@@ -0,0 +1,279 @@
+package com.blog.revision;
+
+import com.blog.dto.projection.RevisionSummary;
+import com.blog.entity.Post;
+import com.blog.entity.PostRevision;
+import com.blog.exception.ApiException;
+import com.blog.repository.PostRepository;
+import com.blog.repository.PostRevisionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+// Revision history of post titles and content. Every save that changes either is kept as a
+// compressed delta against the previous revision, with a full snapshot at least every
+// blog.revisions.snapshot-every revisions, so reading any revision applies a bounded number of
+// deltas. Revisions older than blog.revisions.keep-all-for are thinned in the background to
+// the last one of each day.
+@Slf4j
+@Service
+public class RevisionService {
+    
+    public static final int PAGE_SIZE = 100;
+    private static final int COMPACT_BATCH = 50;
+    
+    @lombok.Value
+    public static class Revision {
+        int number;
+        String title;
+        String content;
+    }
+    
+    // What a post held before a write, taken before the write changes it
+    @lombok.Value
+    public static class Previous {
+        String title;
+        String content;
+        LocalDateTime savedAt;
+    
+        public static Previous of(Post post) {
+            return new Previous(post.getTitle(), post.getContent(),
+                    post.getUpdatedAt() != null ? post.getUpdatedAt() : post.getCreatedAt());
+        }
+    }
+    
+    @lombok.Value
+    private static class Encoded {
+        int base;
+        byte[] data;
+    }
+    
+    private final PostRevisionRepository revisionRepository;
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int snapshotEvery;
+    private final Duration keepAllFor;
+    private final Counter snapshots;
+    private final Counter deltas;
+    private final Timer compactionTimer;
+    
+    public RevisionService(
+            PostRevisionRepository revisionRepository,
+            PostRepository postRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${blog.revisions.snapshot-every:20}") int snapshotEvery,
+            @Value("${blog.revisions.keep-all-for:P7D}") Duration keepAllFor) {
+        this.revisionRepository = revisionRepository;
+        this.postRepository = postRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotEvery = snapshotEvery;
+        this.keepAllFor = keepAllFor;
+        this.snapshots = meterRegistry.counter("blog.revisions.stored", "kind", "snapshot");
+        this.deltas = meterRegistry.counter("blog.revisions.stored", "kind", "delta");
+        this.compactionTimer = meterRegistry.timer("blog.revisions.compaction.time");
+    }
+    
+    // Called within the post write, once the post holds its new title and content; previous is
+    // null for a new post
+    public void record(Post post, Long editorId, Previous previous) {
+        // Locks the post row rather than the latest revision, which a post written before
+        // revisions were kept does not have yet
+        postRepository.findLockedById(post.getId());
+        PostRevision latest = revisionRepository.findFirstByPostIdOrderByNumberDesc(post.getId()).orElse(null);
+        if (latest == null && previous != null) {
+            // Post written before revisions were kept: what it held becomes revision 1
+            latest = save(post.getId(), 1, previous.getTitle(), previous.getContent(), null, null,
+                    post.getAuthor().getId(), previous.getSavedAt());
+        }
+    
+        String hash = hash(post.getTitle(), post.getContent());
+        if (latest != null && latest.getContentHash().equals(hash)) {
+            return;
+        }
+        // A delta needs the latest revision's content, which is what the post held until now
+        boolean chained = latest != null && previous != null
+                && latest.getContentHash().equals(hash(previous.getTitle(), previous.getContent()));
+        save(post.getId(), latest != null ? latest.getNumber() + 1 : 1, post.getTitle(), post.getContent(),
+                chained ? latest : null, chained ? utf8(previous.getContent()) : null,
+                editorId, LocalDateTime.now());
+    }
+    
+    @Transactional(readOnly = true)
+    public Revision getRevision(Long postId, int number) {
+        PostRevision revision = revisionRepository.findByPostIdAndNumber(postId, number)
+                .orElseThrow(() -> new ApiException.ResourceNotFoundException("Revision not found"));
+        List<PostRevision> chain = revision.isSnapshot()
+                ? List.of(revision)
+                : revisionRepository.findChain(postId, revision.getBase(), number);
+        return new Revision(number, revision.getTitle(), new String(decode(chain), StandardCharsets.UTF_8));
+    }
+    
+    // Newest first; pass the last number of a page to get the next one
+    public List<RevisionSummary> getSummaries(Long postId, int before) {
+        return revisionRepository.findSummaries(postId, before, PageRequest.of(0, PAGE_SIZE));
+    }
+    
+    public void writeDiff(Revision from, Revision to, Writer out) throws IOException {
+        LineDiff.writeUnified(LineDiff.lines(from.getTitle(), from.getContent()),
+                LineDiff.lines(to.getTitle(), to.getContent()),
+                "revision " + from.getNumber(), "revision " + to.getNumber(), out);
+    }
+    
+    // Revisions can be read by the post's author and by admins
+    @Transactional(readOnly = true)
+    public void checkAccess(Long postId, String userEmail, boolean isAdmin) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new ApiException.ResourceNotFoundException("Post not found"));
+        if (!isAdmin && !post.getAuthor().getEmail().equals(userEmail)) {
+            throw new ApiException.ForbiddenException("You can only view revisions of your own posts");
+        }
+    }
+    
+    public void deleteRevisions(Long postId) {
+        revisionRepository.deleteByPostId(postId);
+    }
+    
+    @Scheduled(fixedDelayString = "${blog.revisions.compact-interval:PT6H}",
+               initialDelayString = "${blog.revisions.compact-interval:PT6H}")
+    public void compact() {
+        LocalDateTime before = LocalDateTime.now().minus(keepAllFor);
+        int[] totals = {0, 0};
+        compactionTimer.record(() -> {
+            Set<Long> seen = new HashSet<>();
+            List<Long> postIds;
+            do {
+                postIds = revisionRepository.findPostIdsToCompact(before, PageRequest.of(0, COMPACT_BATCH));
+                postIds.removeIf(postId -> !seen.add(postId));
+                for (Long postId : postIds) {
+                    try {
+                        Integer removed = transactionTemplate.execute(status -> compactPost(postId, before));
+                        totals[0]++;
+                        totals[1] += removed != null ? removed : 0;
+                    } catch (RuntimeException e) {
+                        log.warn("Cannot compact revisions of post {}: {}", postId, e.getMessage());
+                    }
+                }
+            } while (!postIds.isEmpty());
+        });
+        if (totals[0] > 0) {
+            log.info("Compacted revisions of {} posts, {} revisions removed", totals[0], totals[1]);
+        }
+    }
+    
+    // Keeps the first revision, every recent one and the last one of each older day; the kept
+    // revisions are re-encoded wherever a removed one was part of their chain
+    private int compactPost(Long postId, LocalDateTime before) {
+        // Takes the lock record() takes, so no revision is added to a chain being rewritten
+        postRepository.findLockedById(postId);
+        List<PostRevision> revisions = revisionRepository.findByPostIdOrderByNumber(postId);
+        List<byte[]> contents = new ArrayList<>(revisions.size());
+        byte[] content = null;
+        for (PostRevision revision : revisions) {
+            content = revision.isSnapshot()
+                    ? DeltaCodec.restoreSnapshot(revision.getData())
+                    : DeltaCodec.apply(content, revision.getData());
+            contents.add(content);
+        }
+    
+        List<PostRevision> removed = new ArrayList<>();
+        PostRevision previous = null;
+        byte[] previousContent = null;
+        for (int i = 0; i < revisions.size(); i++) {
+            PostRevision revision = revisions.get(i);
+            boolean old = revision.getCreatedAt().isBefore(before);
+            boolean lastOfDay = i == revisions.size() - 1
+                    || !revision.getCreatedAt().toLocalDate().equals(revisions.get(i + 1).getCreatedAt().toLocalDate());
+            if (old && i > 0 && !lastOfDay) {
+                removed.add(revision);
+                continue;
+            }
+    
+            Encoded encoded = encode(revision.getNumber(), contents.get(i), previous, previousContent);
+            if (encoded.getBase() != revision.getBase() || !Arrays.equals(encoded.getData(), revision.getData())) {
+                revision.setBase(encoded.getBase());
+                revision.setData(encoded.getData());
+            }
+            if (old) {
+                revision.setCompacted(true);
+            }
+            previous = revision;
+            previousContent = contents.get(i);
+        }
+        revisionRepository.deleteAllInBatch(removed);
+        return removed.size();
+    }
+    
+    private PostRevision save(Long postId, int number, String title, String content, PostRevision previous,
+                              byte[] previousContent, Long authorId, LocalDateTime createdAt) {
+        Encoded encoded = encode(number, utf8(content), previous, previousContent);
+        (encoded.getBase() == number ? snapshots : deltas).increment();
+        return revisionRepository.save(PostRevision.builder()
+                .postId(postId)
+                .number(number)
+                .base(encoded.getBase())
+                .title(title)
+                .data(encoded.getData())
+                .contentHash(hash(title, content))
+                .contentLength(content.length())
+                .authorId(authorId)
+                .createdAt(createdAt)
+                .build());
+    }
+    
+    private Encoded encode(int number, byte[] content, PostRevision previous, byte[] previousContent) {
+        byte[] snapshot = DeltaCodec.snapshot(content);
+        if (previous != null && number - previous.getBase() < snapshotEvery) {
+            byte[] delta = DeltaCodec.delta(previousContent, content);
+            // A delta over half a snapshot saves little and lengthens every later reconstruction
+            if (delta.length * 2 < snapshot.length) {
+                return new Encoded(previous.getBase(), delta);
+            }
+        }
+        return new Encoded(number, snapshot);
+    }
+    
+    private static byte[] decode(List<PostRevision> chain) {
+        byte[] content = DeltaCodec.restoreSnapshot(chain.get(0).getData());
+        for (int i = 1; i < chain.size(); i++) {
+            content = DeltaCodec.apply(content, chain.get(i).getData());
+        }
+        return content;
+    }
+    
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static String hash(String title, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(utf8(title));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(utf8(content)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.blog.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Term -> postings index over title and content, ranked with BM25F (title field weighted higher)
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double CONTENT_WEIGHT = 1.0;
+
+    private final Map<String, Map<Long, Posting>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalTitleLength;
+    private long totalContentLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static class Posting {
+        int titleFrequency;
+        int contentFrequency;
+    }
+
+    @RequiredArgsConstructor
+    private static class Document {
+        final int titleLength;
+        final int contentLength;
+        final Set<String> terms;
+    }
+
+    @Value
+    public static class Hits {
+        List<Long> ids;
+        long total;
+    }
+
+    // Tokenized document, built outside the lock so rebuilds can tokenize in parallel
+    public static class Entry {
+        private final long id;
+        private final List<String> titleTokens;
+        private final List<String> contentTokens;
+
+        public Entry(long id, String title, String plainContent) {
+            this.id = id;
+            this.titleTokens = SearchTokenizer.tokenize(title);
+            this.contentTokens = SearchTokenizer.tokenize(plainContent);
+        }
+    }
+
+    public void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(entry.id);
+
+            Map<String, Posting> terms = new HashMap<>();
+            for (String token : entry.titleTokens) {
+                terms.computeIfAbsent(token, t -> new Posting()).titleFrequency++;
+            }
+            for (String token : entry.contentTokens) {
+                terms.computeIfAbsent(token, t -> new Posting()).contentFrequency++;
+            }
+
+            terms.forEach((term, posting) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(entry.id, posting));
+
+            documents.put(entry.id, new Document(
+                    entry.titleTokens.size(), entry.contentTokens.size(), terms.keySet()));
+            totalTitleLength += entry.titleTokens.size();
+            totalContentLength += entry.contentTokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.terms) {
+            Map<Long, Posting> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalTitleLength -= document.titleLength;
+        totalContentLength -= document.contentLength;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns the ids ranked [offset, offset + limit) and the total number of matching documents
+    public Hits search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new Hits(List.of(), 0);
+            }
+            double averageTitleLength = Math.max(1.0, (double) totalTitleLength / documentCount);
+            double averageContentLength = Math.max(1.0, (double) totalContentLength / documentCount);
+
+            for (String term : terms) {
+                Map<Long, Posting> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+
+                double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+
+                docs.forEach((id, posting) -> {
+                    Document document = documents.get(id);
+                    double frequency =
+                            TITLE_WEIGHT * posting.titleFrequency
+                                    / (1 - B + B * document.titleLength / averageTitleLength)
+                            + CONTENT_WEIGHT * posting.contentFrequency
+                                    / (1 - B + B * document.contentLength / averageContentLength);
+                    scores.merge(id, idf * frequency / (K1 + frequency), Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new Hits(topRanked(scores, offset, limit), scores.size());
+    }
+
+    // Bounded heap: only offset + limit hits are ever kept, ties broken by newest id
+    private static List<Long> topRanked(Map<Long, Double> scores, int offset, int limit) {
+        int keep = offset + limit;
+        if (keep <= 0 || offset >= scores.size()) {
+            return List.of();
+        }
+
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(keep + 1, ranking);
+
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            heap.offer(score);
+            if (heap.size() > keep) {
+                heap.poll();
+            }
+        }
+
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+
+        return ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+    }
+}
@@ -0,0 +1,128 @@
+package com.blog.search;
+
+import com.blog.dto.projection.PostSearchDocument;
+import com.blog.entity.PostStatus;
+import com.blog.event.PostChangedEvent;
+import com.blog.exception.ApiException;
+import com.blog.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostSearchService {
+
+    private static final int REBUILD_BATCH_SIZE = 200;
+    private static final int REBUILD_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final PostRepository postRepository;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready = false;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // Posts changed while a rebuild is running, replayed onto the new index once it is swapped in
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    // Until the first rebuild finishes, callers fall back to the SQL search
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Page<Long> search(String keyword, Pageable pageable) {
+        InvertedIndex.Hits hits = index.search(keyword, (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(hits.getIds(), pageable, hits.getTotal());
+    }
+
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(event.getPostId());
+        }
+        reindex(index, List.of(event.getPostId()));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // Re-reads every published post from the database, tokenizing batches in parallel
+    public int rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ApiException.BadRequestException("Search index rebuild already running");
+        }
+
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(REBUILD_THREADS);
+        try {
+            InvertedIndex rebuilt = new InvertedIndex();
+            List<Long> ids = postRepository.findAllIdsByStatus(PostStatus.PUBLISHED);
+
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += REBUILD_BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(from + REBUILD_BATCH_SIZE, ids.size()));
+                batches.add(CompletableFuture.runAsync(() -> reindex(rebuilt, batch), executor));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).join();
+
+            index = rebuilt;
+            ready = true;
+
+            // Events seen during the rebuild only reached the old index
+            while (!changedDuringRebuild.isEmpty()) {
+                List<Long> changed = new ArrayList<>(changedDuringRebuild);
+                changedDuringRebuild.removeAll(changed);
+                reindex(rebuilt, changed);
+            }
+
+            log.info("Search index rebuilt with {} posts in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+            return rebuilt.size();
+        } finally {
+            executor.shutdown();
+            rebuilding.set(false);
+        }
+    }
+
+    private void reindex(InvertedIndex target, List<Long> ids) {
+        List<PostSearchDocument> documents = postRepository.findSearchDocumentsByIdIn(ids);
+
+        Set<Long> found = new HashSet<>();
+        for (PostSearchDocument document : documents) {
+            found.add(document.getId());
+            if (document.getStatus() == PostStatus.PUBLISHED) {
+                target.put(new InvertedIndex.Entry(
+                        document.getId(), document.getTitle(), document.getText()));
+            } else {
+                target.remove(document.getId());
+            }
+        }
+
+        // Deleted posts
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                target.remove(id);
+            }
+        }
+    }
+}
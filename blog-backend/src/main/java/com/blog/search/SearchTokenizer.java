@@ -0,0 +1,37 @@
+package com.blog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Same NFD folding as SlugUtil, so "Lập trình" matches "lap trinh"
+public class SearchTokenizer {
+    
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+    
+    private static final int MAX_TOKEN_LENGTH = 40;
+    
+    public static String fold(String input) {
+        if (input == null || input.isBlank()) {
+            return "";
+        }
+        
+        // NFD does not decompose đ, map it by hand
+        String replaced = input.replace('đ', 'd').replace('Đ', 'D');
+        String normalized = Normalizer.normalize(replaced, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(normalized).replaceAll("").toLowerCase(Locale.ENGLISH);
+    }
+    
+    public static List<String> tokenize(String input) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(fold(input))) {
+            if (!token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
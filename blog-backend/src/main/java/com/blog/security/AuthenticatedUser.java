@@ -0,0 +1,63 @@
+package com.blog.security;
+
+import com.blog.entity.Role;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+// Principal built from JWT claims. getUsername() is the email, like the UserDetails from
+// UserDetailsServiceImpl, so controllers work with either.
+@Getter
+public class AuthenticatedUser implements UserDetails {
+    
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final List<GrantedAuthority> authorities;
+    
+    public AuthenticatedUser(Long id, String email, Role role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+    
+    @Override
+    public String getPassword() {
+        return null;
+    }
+    
+    @Override
+    public String getUsername() {
+        return email;
+    }
+    
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+    
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
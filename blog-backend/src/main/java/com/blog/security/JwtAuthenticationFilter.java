@@ -1,5 +1,9 @@
 package com.blog.security;
 
+import com.blog.entity.Role;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +28,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersions tokenVersions;
+    private final MeterRegistry meterRegistry;
     
     @Override
     protected void doFilterInternal(
@@ -34,7 +40,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -43,13 +48,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         jwt = authHeader.substring(7);
         
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "authenticated";
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // One parse verifies the signature and expiry and yields everything else
+            Claims claims = jwtService.parseToken(jwt);
             
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = toUserDetails(claims);
                 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -57,12 +65,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                } else {
+                    outcome = "revoked";
                 }
             }
         } catch (Exception e) {
+            outcome = "invalid";
             log.error("Cannot set user authentication: {}", e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("blog.security.jwt", "outcome", outcome));
         }
         
         filterChain.doFilter(request, response);
     }
+    
+    // Returns null when the token was revoked or its user deleted
+    private UserDetails toUserDetails(Claims claims) {
+        Long userId = claims.get(JwtService.USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            // Issued before the claims carried the user, load it until those tokens expire
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        
+        Integer version = claims.get(JwtService.VERSION_CLAIM, Integer.class);
+        if (!tokenVersions.isCurrent(userId, version != null ? version : 0)) {
+            return null;
+        }
+        
+        Role role = Role.valueOf(claims.get(JwtService.ROLE_CLAIM, String.class));
+        return new AuthenticatedUser(userId, claims.getSubject(), role);
+    }
 }
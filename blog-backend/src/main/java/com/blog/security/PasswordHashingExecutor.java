@@ -0,0 +1,56 @@
+package com.blog.security;
+
+import com.blog.exception.ApiException;
+import com.blog.metrics.RequestQueryStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BCrypt work (login, register) runs here instead of on Tomcat threads. The queue is bounded:
+// when it is full the request is shed with 503 rather than piling up. The queries a task runs
+// still count against the request that submitted it.
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+    
+    private final ThreadPoolExecutor executor;
+    
+    public PasswordHashingExecutor(
+            @Value("${blog.password-hashing.threads:0}") int threads,
+            @Value("${blog.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(RequestQueryStats.propagate(task), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing queue full ({} queued), shedding request", executor.getQueue().size());
+            throw new ApiException.ServiceUnavailableException("Server is busy, try again shortly", 1);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
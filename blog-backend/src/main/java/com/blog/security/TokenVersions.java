@@ -0,0 +1,44 @@
+package com.blog.security;
+
+import com.blog.repository.UserRepository;
+import com.blog.service.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token revocation. A token is valid only while its version claim matches the user's
+// tokenVersion; the versions are kept in memory so authenticated requests skip the database.
+@Component
+@RequiredArgsConstructor
+public class TokenVersions {
+    
+    // Tombstone for deleted users; versions only ever grow, so it always wins
+    private static final int DELETED = Integer.MAX_VALUE;
+    
+    private final UserRepository userRepository;
+    
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    
+    public boolean isCurrent(Long userId, int version) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            // First request for this user since startup
+            current = userRepository.findTokenVersionById(userId).orElse(DELETED);
+            current = versions.merge(userId, current, Math::max);
+        }
+        return current == version;
+    }
+    
+    // Invalidates every token issued to the user so far; call inside the write transaction
+    public void revoke(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        int version = userRepository.findTokenVersionById(userId).orElse(DELETED);
+        AfterCommit.run(() -> versions.merge(userId, version, Math::max));
+    }
+    
+    public void userDeleted(Long userId) {
+        AfterCommit.run(() -> versions.put(userId, DELETED));
+    }
+}
@@ -3,12 +3,14 @@ package com.blog.service;
 import com.blog.dto.response.StatsResponse;
 import com.blog.dto.response.UserAdminResponse;
 import com.blog.entity.User;
+import com.blog.event.PostChangedEvent;
 import com.blog.exception.ApiException;
-import com.blog.repository.CategoryRepository;
-import com.blog.repository.PostRepository;
-import com.blog.repository.TagRepository;
+import com.blog.repository.PostViewRepository;
 import com.blog.repository.UserRepository;
+import com.blog.revision.RevisionService;
+import com.blog.security.TokenVersions;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,16 +22,22 @@ import java.util.stream.Collectors;
 public class AdminService {
     
     private final UserRepository userRepository;
-    private final PostRepository postRepository;
-    private final CategoryRepository categoryRepository;
-    private final TagRepository tagRepository;
+    private final PostViewRepository postViewRepository;
+    private final RevisionService revisionService;
+    private final CounterService counterService;
+    private final TokenVersions tokenVersions;
+    private final ApplicationEventPublisher eventPublisher;
     
+    // Served from in-memory counters, no queries
     public StatsResponse getStats() {
         return StatsResponse.builder()
-                .totalPosts(postRepository.count())
-                .totalUsers(userRepository.count())
-                .totalCategories(categoryRepository.count())
-                .totalTags(tagRepository.count())
+                .totalPosts(counterService.getPostCount())
+                .totalUsers(counterService.get(CounterService.Counter.USERS))
+                .totalCategories(counterService.get(CounterService.Counter.CATEGORIES))
+                .totalTags(counterService.get(CounterService.Counter.TAGS))
+                .postsByStatus(counterService.getPostsByStatus())
+                .publishedPostsByCategory(counterService.getPublishedByCategory())
+                .publishedPostsByTag(counterService.getPublishedByTag())
                 .build();
     }
     
@@ -49,6 +57,28 @@ public class AdminService {
             throw new ApiException.BadRequestException("Cannot delete your own account");
         }
         
+        // The user's posts go with it (orphan removal), let post listeners know. Their view and
+        // revision rows are not mapped on Post, so they are removed here as in PostService.deletePost
+        user.getPosts().forEach(post -> {
+            postViewRepository.deleteByPostId(post.getId());
+            revisionService.deleteRevisions(post.getId());
+            eventPublisher.publishEvent(PostChangedEvent.builder()
+                    .postId(post.getId())
+                    .type(PostChangedEvent.Type.DELETED)
+                    .before(post)
+                    .build());
+        });
+        
         userRepository.delete(user);
+        counterService.add(CounterService.Counter.USERS, -1);
+        tokenVersions.userDeleted(user.getId());
+    }
+    
+    @Transactional
+    public void revokeTokens(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new ApiException.ResourceNotFoundException("User not found");
+        }
+        tokenVersions.revoke(id);
     }
 }
@@ -10,8 +10,6 @@ import com.blog.security.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,7 +22,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
+    private final CounterService counterService;
     
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -46,10 +44,10 @@ public class AuthService {
                 .build();
         
         userRepository.save(user);
+        counterService.add(CounterService.Counter.USERS, 1);
         
         // Generate token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user);
         
         return buildAuthResponse(user, token);
     }
@@ -70,8 +68,7 @@ public class AuthService {
                 .orElseThrow(() -> new ApiException.UnauthorizedException("Invalid credentials"));
         
         // Generate token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user);
         
         return buildAuthResponse(user, token);
     }
@@ -1,12 +1,15 @@
 package com.blog.service;
 
+import com.blog.cache.SlugIndexes;
 import com.blog.dto.request.CategoryRequest;
 import com.blog.dto.response.CategoryResponse;
 import com.blog.entity.Category;
+import com.blog.event.CategoryChangedEvent;
 import com.blog.exception.ApiException;
 import com.blog.repository.CategoryRepository;
 import com.blog.repository.PostRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +22,9 @@ public class CategoryService {
     
     private final CategoryRepository categoryRepository;
     private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CounterService counterService;
+    private final SlugIndexes slugIndexes;
     
     public List<CategoryResponse> getAllCategories() {
         return categoryRepository.findAll().stream()
@@ -27,7 +33,9 @@ public class CategoryService {
     }
     
     public CategoryResponse getCategoryBySlug(String slug) {
-        Category category = categoryRepository.findBySlug(slug)
+        Category category = slugIndexes.categories().findId(slug)
+                .flatMap(categoryRepository::findById)
+                .filter(found -> found.getSlug().equals(slug))
                 .orElseThrow(() -> new ApiException.ResourceNotFoundException("Category not found: " + slug));
         return CategoryResponse.fromEntity(category);
     }
@@ -56,6 +64,8 @@ public class CategoryService {
                 .build();
         
         categoryRepository.save(category);
+        counterService.add(CounterService.Counter.CATEGORIES, 1);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId(), null, category.getSlug()));
         return CategoryResponse.fromEntity(category);
     }
     
@@ -81,10 +91,12 @@ public class CategoryService {
             throw new ApiException.DuplicateResourceException("Category slug already exists");
         }
         
+        String previousSlug = category.getSlug();
         category.setName(request.getName());
         category.setSlug(slug);
         
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId(), previousSlug, category.getSlug()));
         return CategoryResponse.fromEntity(category);
     }
     
@@ -101,5 +113,7 @@ public class CategoryService {
         }
         
         categoryRepository.delete(category);
+        counterService.add(CounterService.Counter.CATEGORIES, -1);
+        eventPublisher.publishEvent(new CategoryChangedEvent(category.getId(), category.getSlug(), null));
     }
 }
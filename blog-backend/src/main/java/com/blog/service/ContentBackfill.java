@@ -0,0 +1,72 @@
+package com.blog.service;
+
+import com.blog.entity.Post;
+import com.blog.repository.PostRepository;
+import com.blog.repository.RenderedContentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Renders posts written before the content pipeline existed, and every post again after
+// ContentPipeline.VERSION is bumped. Then drops renderings no post points at anymore.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentBackfill {
+    
+    private static final int BATCH_SIZE = 100;
+    
+    private final PostRepository postRepository;
+    private final RenderedContentRepository renderedContentRepository;
+    private final ContentPipeline contentPipeline;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+    
+    // Also for rows inserted around the write paths, e.g. by the load test generator
+    public void backfill() {
+        int total = 0;
+        long afterId = 0;
+        List<Long> ids;
+        
+        // Cursor on id: a post that fails to render is not picked up again by the next batch
+        do {
+            long after = afterId;
+            ids = transactionTemplate.execute(status -> renderBatch(after));
+            total += ids.size();
+            if (!ids.isEmpty()) {
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == BATCH_SIZE);
+        
+        Integer removed = transactionTemplate.execute(status -> renderedContentRepository.deleteUnreferenced());
+        if (total > 0 || (removed != null && removed > 0)) {
+            log.info("Rendered content for {} posts, removed {} unused renderings", total, removed);
+        }
+    }
+    
+    private List<Long> renderBatch(long afterId) {
+        List<Long> ids = postRepository.findIdsNeedingRender(
+                afterId, ContentPipeline.VERSION, PageRequest.of(0, BATCH_SIZE));
+        
+        for (Post post : postRepository.findAllById(ids)) {
+            String hash = ContentPipeline.hash(post.getContent());
+            ContentUtil.Summary summary = contentPipeline.render(hash, post.getContent()).getSummary();
+            postRepository.updateRendering(post.getId(), post.getUpdatedAt(), hash,
+                    summary.getExcerpt(), summary.getWordCount(), summary.getReadingTime());
+        }
+        
+        return ids;
+    }
+}
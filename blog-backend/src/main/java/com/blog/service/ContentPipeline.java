@@ -0,0 +1,154 @@
+package com.blog.service;
+
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.Post;
+import com.blog.entity.RenderedContent;
+import com.blog.repository.RenderedContentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+// Renders post content once per distinct content and pipeline version, on the write path.
+// Reads are served from the stored rendering; a post is rendered again only when its content
+// hash changes or VERSION is bumped (the backfill then re-renders every post).
+@Service
+public class ContentPipeline {
+    
+    // Bump whenever ContentRenderer output changes
+    public static final int VERSION = 1;
+    
+    private static final TypeReference<List<PostResponse.TocEntry>> TOC_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<String>> IMAGES_TYPE = new TypeReference<>() {
+    };
+    
+    private final RenderedContentRepository renderedContentRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate requiresNew;
+    
+    public ContentPipeline(RenderedContentRepository renderedContentRepository, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.renderedContentRepository = renderedContentRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    // Write path: points the post at the rendering of its current content and copies the
+    // summary fields list views read
+    public ContentRenderer.Rendered apply(Post post) {
+        String hash = hash(post.getContent());
+        ContentRenderer.Rendered rendered = render(hash, post.getContent());
+    
+        post.setContentHash(hash);
+        post.setExcerpt(rendered.getSummary().getExcerpt());
+        post.setWordCount(rendered.getSummary().getWordCount());
+        post.setReadingTime(rendered.getSummary().getReadingTime());
+        return rendered;
+    }
+    
+    // Stored rendering of the current content, rendering it now if it is missing or outdated
+    public ContentRenderer.Rendered render(String hash, String content) {
+        Optional<ContentRenderer.Rendered> stored = findCurrent(hash);
+        if (stored.isPresent()) {
+            meterRegistry.counter("blog.content.render", "outcome", "reused").increment();
+            return stored.get();
+        }
+    
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ContentRenderer.Rendered rendered = ContentRenderer.render(content);
+        sample.stop(meterRegistry.timer("blog.content.render.time"));
+        meterRegistry.counter("blog.content.render", "outcome", "rendered").increment();
+    
+        store(hash, rendered);
+        return rendered;
+    }
+    
+    // Read path: never writes. Posts the backfill has not reached yet are rendered in memory.
+    public ContentRenderer.Rendered renderedFor(Post post) {
+        return Optional.ofNullable(post.getContentHash())
+                .flatMap(this::findCurrent)
+                .orElseGet(() -> ContentRenderer.render(post.getContent()));
+    }
+    
+    public static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private Optional<ContentRenderer.Rendered> findCurrent(String hash) {
+        return renderedContentRepository.findById(hash)
+                .filter(row -> row.getPipelineVersion() == VERSION)
+                .map(this::fromRow);
+    }
+    
+    // In its own transaction so a concurrent insert of the same content cannot roll back the
+    // caller's write; whichever rendering lands first is identical anyway
+    private void store(String hash, ContentRenderer.Rendered rendered) {
+        RenderedContent row = RenderedContent.builder()
+                .hash(hash)
+                .pipelineVersion(VERSION)
+                .html(rendered.getHtml())
+                .plainText(rendered.getPlainText())
+                .excerpt(rendered.getSummary().getExcerpt())
+                .wordCount(rendered.getSummary().getWordCount())
+                .readingTime(rendered.getSummary().getReadingTime())
+                .toc(write(rendered.getToc()))
+                .images(write(rendered.getImages()))
+                .build();
+        try {
+            requiresNew.executeWithoutResult(status -> renderedContentRepository.save(row));
+        } catch (DataIntegrityViolationException e) {
+            // Stored by a concurrent write of the same content
+        }
+    }
+    
+    private ContentRenderer.Rendered fromRow(RenderedContent row) {
+        return new ContentRenderer.Rendered(
+                row.getHtml(),
+                row.getPlainText(),
+                new ContentUtil.Summary(row.getExcerpt(), row.getWordCount(), row.getReadingTime()),
+                read(row.getToc(), TOC_TYPE),
+                read(row.getImages(), IMAGES_TYPE));
+    }
+    
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize rendered content", e);
+        }
+    }
+    
+    private <T> List<T> read(String json, TypeReference<List<T>> type) {
+        if (json == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read rendered content", e);
+        }
+    }
+}
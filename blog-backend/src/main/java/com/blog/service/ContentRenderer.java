@@ -0,0 +1,106 @@
+package com.blog.service;
+
+import com.blog.dto.response.PostResponse;
+import lombok.Value;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.safety.Cleaner;
+import org.jsoup.safety.Safelist;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Turns editor HTML into everything the read path serves: sanitized HTML with heading anchors,
+// plain text, the summary fields, a table of contents and the image list. Pure and stateless,
+// ContentPipeline decides when it runs.
+public class ContentRenderer {
+    
+    // What the Quill toolbar can produce, nothing else survives
+    private static final Safelist SAFELIST = new Safelist()
+            .addTags("p", "br", "h1", "h2", "h3", "h4", "h5", "h6", "strong", "b", "em", "i", "u", "s",
+                    "ol", "ul", "li", "blockquote", "pre", "code", "span", "a", "img")
+            .addAttributes(":all", "class")
+            .addAttributes("a", "href", "target")
+            .addAttributes("img", "src", "alt")
+            .addAttributes("pre", "spellcheck")
+            .addProtocols("a", "href", "http", "https", "mailto")
+            .addProtocols("img", "src", "http", "https");
+    
+    private static final String HEADINGS = "h1, h2, h3, h4, h5, h6";
+    
+    @Value
+    public static class Rendered {
+        String html;
+        String plainText;
+        ContentUtil.Summary summary;
+        List<PostResponse.TocEntry> toc;
+        List<String> images;
+    }
+    
+    public static Rendered render(String html) {
+        Document dirty = Jsoup.parseBodyFragment(html == null ? "" : html);
+        Document document = new Cleaner(SAFELIST).clean(dirty);
+        document.outputSettings().prettyPrint(false);
+        Element body = document.body();
+    
+        // Quill formatting classes only, so posted markup cannot borrow the site's own styles
+        for (Element element : body.select("[class]")) {
+            Set<String> classes = element.classNames();
+            classes.removeIf(name -> !name.startsWith("ql-"));
+            if (classes.isEmpty()) {
+                element.removeAttr("class");
+            } else {
+                element.classNames(classes);
+            }
+        }
+    
+        // Shells left behind when the cleaner dropped an unsafe URL
+        body.select("img:not([src])").remove();
+        body.select("a:not([href])").unwrap();
+    
+        for (Element link : body.select("a[href]")) {
+            link.attr("rel", "noopener noreferrer nofollow");
+        }
+    
+        List<PostResponse.TocEntry> toc = new ArrayList<>();
+        Set<String> anchors = new HashSet<>();
+        for (Element heading : body.select(HEADINGS)) {
+            String text = heading.text().trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            String anchor = uniqueAnchor(SlugUtil.toSlug(text), toc.size() + 1, anchors);
+            heading.attr("id", anchor);
+            toc.add(PostResponse.TocEntry.builder()
+                    .level(heading.tagName().charAt(1) - '0')
+                    .text(text)
+                    .anchor(anchor)
+                    .build());
+        }
+    
+        Set<String> images = new LinkedHashSet<>();
+        for (Element image : body.select("img[src]")) {
+            images.add(image.attr("src"));
+        }
+    
+        // Same extraction as ContentUtil.summarize, so stored excerpts and search text keep their shape
+        String sanitized = body.html();
+        String plainText = ContentUtil.toPlainText(sanitized);
+        return new Rendered(sanitized, plainText, ContentUtil.summarizeText(plainText),
+                List.copyOf(toc), List.copyOf(images));
+    }
+    
+    // Repeated headings get -2, -3...; headings without any latin letters fall back to section-N
+    private static String uniqueAnchor(String slug, int position, Set<String> taken) {
+        String base = slug.isEmpty() ? "section-" + position : slug;
+        String anchor = base;
+        for (int i = 2; !taken.add(anchor); i++) {
+            anchor = base + "-" + i;
+        }
+        return anchor;
+    }
+}
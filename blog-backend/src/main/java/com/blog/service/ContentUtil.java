@@ -0,0 +1,61 @@
+package com.blog.service;
+
+import lombok.Value;
+
+import java.util.regex.Pattern;
+
+public class ContentUtil {
+    
+    private static final int EXCERPT_LENGTH = 200;
+    private static final int WORDS_PER_MINUTE = 200;
+    
+    private static final Pattern SCRIPT_OR_STYLE = Pattern.compile("(?is)<(script|style)[^>]*>.*?</\\1>");
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    @Value
+    public static class Summary {
+        String excerpt;
+        int wordCount;
+        int readingTime; // minutes
+    }
+    
+    public static Summary summarize(String html) {
+        return summarizeText(toPlainText(html));
+    }
+    
+    public static Summary summarizeText(String text) {
+        int wordCount = text.isEmpty() ? 0 : WHITESPACE.split(text).length;
+        int readingTime = Math.max(1, (wordCount + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE);
+        return new Summary(toExcerpt(text), wordCount, readingTime);
+    }
+    
+    public static String toPlainText(String html) {
+        if (html == null || html.isBlank()) {
+            return "";
+        }
+        
+        String text = SCRIPT_OR_STYLE.matcher(html).replaceAll(" ");
+        text = HTML_TAG.matcher(text).replaceAll(" ");
+        text = text.replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&amp;", "&");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+    
+    // Cut on a word boundary so the excerpt never ends mid-word
+    public static String toExcerpt(String text) {
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        
+        int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (cut <= 0) {
+            cut = EXCERPT_LENGTH;
+        }
+        return text.substring(0, cut).trim() + "...";
+    }
+}
@@ -0,0 +1,228 @@
+package com.blog.service;
+
+import com.blog.dto.projection.SlugCount;
+import com.blog.dto.projection.StatusCount;
+import com.blog.entity.PostStatus;
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
+import com.blog.repository.TagRepository;
+import com.blog.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-memory totals for the admin dashboard. Write paths apply deltas after their transaction
+// commits, a periodic reconcile replaces everything with fresh counts from the database.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CounterService {
+    
+    public enum Counter {
+        USERS,
+        CATEGORIES,
+        TAGS
+    }
+    
+    private static class Counts {
+        final Map<PostStatus, AtomicLong> postsByStatus = new EnumMap<>(PostStatus.class);
+        final Map<Counter, AtomicLong> totals = new EnumMap<>(Counter.class);
+        final Map<String, AtomicLong> publishedByCategory = new ConcurrentHashMap<>();
+        final Map<String, AtomicLong> publishedByTag = new ConcurrentHashMap<>();
+    
+        Counts() {
+            for (PostStatus status : PostStatus.values()) {
+                postsByStatus.put(status, new AtomicLong());
+            }
+            for (Counter counter : Counter.values()) {
+                totals.put(counter, new AtomicLong());
+            }
+        }
+    }
+    
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    
+    private volatile Counts counts = new Counts();
+    private volatile boolean loaded = false;
+    
+    // Writers share the read lock; the reconcile swap takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Bumped by every applied delta, so a reconcile can tell whether it raced a write
+    private final AtomicLong writes = new AtomicLong();
+    
+    // Applies the delta once the surrounding transaction commits, never on rollback
+    public void add(Counter counter, long delta) {
+        AfterCommit.run(() -> apply(counts -> counts.totals.get(counter).addAndGet(delta)));
+    }
+    
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        apply(counts -> {
+            count(counts, event.getBefore(), -1);
+            count(counts, event.getAfter(), 1);
+        });
+    }
+    
+    // A renamed slug would leave the per-category counts under the old key
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reconcile();
+    }
+    
+    public long getPostCount() {
+        ensureLoaded();
+        return counts.postsByStatus.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+    
+    public long getPostCount(PostStatus status) {
+        ensureLoaded();
+        return counts.postsByStatus.get(status).get();
+    }
+    
+    public long get(Counter counter) {
+        ensureLoaded();
+        return counts.totals.get(counter).get();
+    }
+    
+    public Map<PostStatus, Long> getPostsByStatus() {
+        ensureLoaded();
+        Map<PostStatus, Long> result = new EnumMap<>(PostStatus.class);
+        counts.postsByStatus.forEach((status, count) -> result.put(status, count.get()));
+        return result;
+    }
+    
+    public Map<String, Long> getPublishedByCategory() {
+        ensureLoaded();
+        return snapshot(counts.publishedByCategory);
+    }
+    
+    public Map<String, Long> getPublishedByTag() {
+        ensureLoaded();
+        return snapshot(counts.publishedByTag);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+    
+    // Reloads every counter from the database. Skipped when a write landed during the queries,
+    // since its delta may or may not be in the fresh counts; the next run picks it up.
+    @Scheduled(fixedDelayString = "${blog.counters.reconcile-interval:PT5M}",
+               initialDelayString = "${blog.counters.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long startWrites = writes.get();
+        Counts fresh = load();
+    
+        lock.writeLock().lock();
+        try {
+            if (writes.get() != startWrites) {
+                log.debug("Counter reconcile raced a write, retrying on the next run");
+                if (loaded) {
+                    return;
+                }
+            }
+    
+            logDrift(counts, fresh);
+            counts = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private Counts load() {
+        Counts fresh = new Counts();
+    
+        for (StatusCount row : postRepository.countGroupByStatus()) {
+            fresh.postsByStatus.get(row.getStatus()).set(row.getCount());
+        }
+        for (SlugCount row : postRepository.countByStatusGroupByCategory(PostStatus.PUBLISHED)) {
+            fresh.publishedByCategory.put(row.getSlug(), new AtomicLong(row.getCount()));
+        }
+        for (SlugCount row : postRepository.countByStatusGroupByTag(PostStatus.PUBLISHED)) {
+            fresh.publishedByTag.put(row.getSlug(), new AtomicLong(row.getCount()));
+        }
+        fresh.totals.get(Counter.USERS).set(userRepository.count());
+        fresh.totals.get(Counter.CATEGORIES).set(categoryRepository.count());
+        fresh.totals.get(Counter.TAGS).set(tagRepository.count());
+    
+        return fresh;
+    }
+    
+    private void logDrift(Counts current, Counts fresh) {
+        if (!loaded) {
+            return;
+        }
+        current.postsByStatus.forEach((status, count) -> {
+            long expected = fresh.postsByStatus.get(status).get();
+            if (count.get() != expected) {
+                log.warn("Post counter {} drifted: {} in memory, {} in database", status, count.get(), expected);
+            }
+        });
+        current.totals.forEach((counter, count) -> {
+            long expected = fresh.totals.get(counter).get();
+            if (count.get() != expected) {
+                log.warn("Counter {} drifted: {} in memory, {} in database", counter, count.get(), expected);
+            }
+        });
+    }
+    
+    private void count(Counts counts, PostChangedEvent.PostState state, int delta) {
+        if (state == null) {
+            return;
+        }
+        counts.postsByStatus.get(state.getStatus()).addAndGet(delta);
+        if (state.isPublished()) {
+            counts.publishedByCategory.computeIfAbsent(state.getCategorySlug(), slug -> new AtomicLong())
+                    .addAndGet(delta);
+            state.getTagSlugs().forEach(slug ->
+                    counts.publishedByTag.computeIfAbsent(slug, key -> new AtomicLong()).addAndGet(delta));
+        }
+    }
+    
+    private void apply(Consumer<Counts> delta) {
+        lock.readLock().lock();
+        try {
+            writes.incrementAndGet();
+            delta.accept(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void ensureLoaded() {
+        if (!loaded) {
+            reconcile();
+        }
+    }
+    
+    // Sorted, and without categories or tags that no longer have published posts
+    private static Map<String, Long> snapshot(Map<String, AtomicLong> counts) {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((slug, count) -> {
+            if (count.get() > 0) {
+                result.put(slug, count.get());
+            }
+        });
+        return result;
+    }
+}
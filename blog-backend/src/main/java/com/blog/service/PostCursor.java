@@ -0,0 +1,41 @@
+package com.blog.service;
+
+import com.blog.exception.ApiException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque keyset cursor over (createdAt, id), encoded as URL-safe base64
+@Value
+public class PostCursor {
+    
+    private static final char SEPARATOR = '|';
+    
+    LocalDateTime createdAt;
+    Long id;
+    
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Returns null for a missing or blank cursor, meaning "start from the newest post"
+    public static PostCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new PostCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ApiException.BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,22 +1,40 @@
 package com.blog.service;
 
+import com.blog.cache.PostDetailCache;
+import com.blog.cache.SlugIndexes;
+import com.blog.dto.projection.PostSummary;
+import com.blog.dto.projection.PostTagSummary;
+import com.blog.dto.projection.PostValidator;
 import com.blog.dto.request.PostRequest;
+import com.blog.dto.response.CursorResponse;
 import com.blog.dto.response.PageResponse;
 import com.blog.dto.response.PostResponse;
 import com.blog.entity.*;
+import com.blog.event.PostChangedEvent;
 import com.blog.exception.ApiException;
 import com.blog.repository.CategoryRepository;
 import com.blog.repository.PostRepository;
+import com.blog.repository.PostViewRepository;
 import com.blog.repository.UserRepository;
+import com.blog.revision.RevisionService;
+import com.blog.search.PostSearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,66 +42,115 @@ import java.util.stream.Collectors;
 public class PostService {
     
     private final PostRepository postRepository;
+    private final PostViewRepository postViewRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final TagService tagService;
+    private final PostSearchService postSearchService;
+    private final PostDetailCache postDetailCache;
+    private final CounterService counterService;
+    private final ContentPipeline contentPipeline;
+    private final SlugIndexes slugIndexes;
+    private final RevisionService revisionService;
+    private final ApplicationEventPublisher eventPublisher;
     
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int STATE_BATCH_SIZE = 1000;
     
     // Public: Get published posts
     public PageResponse<PostResponse> getPublishedPosts(int page) {
         Pageable pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE);
-        Page<Post> posts = postRepository.findByStatusOrderByCreatedAtDesc(PostStatus.PUBLISHED, pageable);
-        
-        List<PostResponse> content = posts.getContent().stream()
-                .map(PostResponse::fromEntity)
-                .collect(Collectors.toList());
-        
-        return PageResponse.from(posts, content);
+        Page<Long> ids = postRepository.findIdsByStatus(PostStatus.PUBLISHED, pageable);
+        return toPageResponse(ids);
+    }
+    
+    // Public: Get published posts by cursor
+    public CursorResponse<PostResponse> getPublishedPosts(String cursor) {
+        PostCursor after = PostCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, DEFAULT_PAGE_SIZE + 1);
+        List<Long> ids = after == null
+                ? postRepository.findFirstIdsByStatus(PostStatus.PUBLISHED, limit)
+                : postRepository.findIdsByStatusAfter(
+                        PostStatus.PUBLISHED, after.getCreatedAt(), after.getId(), limit);
+        return toCursorResponse(ids);
     }
     
     // Public: Get post by slug
     public PostResponse getPostBySlug(String slug) {
-        Post post = postRepository.findBySlugWithDetails(slug)
-                .orElseThrow(() -> new ApiException.ResourceNotFoundException("Post not found: " + slug));
-        return PostResponse.fromEntity(post, true);
+        return postDetailCache.get(slug, key -> slugIndexes.posts().findId(key)
+                .flatMap(postRepository::findByIdWithDetails)
+                // A renamed slug can point at its old post for a moment
+                .filter(post -> post.getSlug().equals(key))
+                .map(post -> PostResponse.fromEntity(post, contentPipeline.renderedFor(post)))
+                .orElseThrow(() -> new ApiException.ResourceNotFoundException("Post not found: " + key)));
+    }
+    
+    // Public: Validator for conditional GETs, served from the detail cache when possible
+    public Optional<PostValidator> getPostValidator(String slug) {
+        PostResponse cached = postDetailCache.getIfPresent(slug);
+        if (cached != null) {
+            return Optional.of(new PostValidator(
+                    cached.getId(), cached.getSlug(), cached.getStatus(), cached.getUpdatedAt()));
+        }
+        return slugIndexes.posts().findId(slug)
+                .flatMap(postRepository::findValidatorById)
+                .filter(validator -> validator.getSlug().equals(slug));
     }
     
     // Public: Get posts by category
     public PageResponse<PostResponse> getPostsByCategory(String categorySlug, int page) {
         Pageable pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE);
-        Page<Post> posts = postRepository.findByCategorySlugAndStatusOrderByCreatedAtDesc(
-                categorySlug, PostStatus.PUBLISHED, pageable);
+        Optional<Long> categoryId = slugIndexes.categories().findId(categorySlug);
+        if (categoryId.isEmpty()) {
+            return toPageResponse(Page.empty(pageable));
+        }
         
-        List<PostResponse> content = posts.getContent().stream()
-                .map(PostResponse::fromEntity)
-                .collect(Collectors.toList());
+        Page<Long> ids = postRepository.findIdsByCategoryIdAndStatus(
+                categoryId.get(), PostStatus.PUBLISHED, pageable);
+        return toPageResponse(ids);
+    }
+    
+    // Public: Get posts by category by cursor
+    public CursorResponse<PostResponse> getPostsByCategory(String categorySlug, String cursor) {
+        PostCursor after = PostCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, DEFAULT_PAGE_SIZE + 1);
+        Optional<Long> categoryId = slugIndexes.categories().findId(categorySlug);
+        if (categoryId.isEmpty()) {
+            return toCursorResponse(List.of());
+        }
         
-        return PageResponse.from(posts, content);
+        List<Long> ids = after == null
+                ? postRepository.findFirstIdsByCategoryIdAndStatus(categoryId.get(), PostStatus.PUBLISHED, limit)
+                : postRepository.findIdsByCategoryIdAndStatusAfter(
+                        categoryId.get(), PostStatus.PUBLISHED, after.getCreatedAt(), after.getId(), limit);
+        return toCursorResponse(ids);
     }
     
     // Public: Get posts by tag
     public PageResponse<PostResponse> getPostsByTag(String tagSlug, int page) {
         Pageable pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE);
-        Page<Post> posts = postRepository.findByTagSlugAndStatus(tagSlug, PostStatus.PUBLISHED, pageable);
-        
-        List<PostResponse> content = posts.getContent().stream()
-                .map(PostResponse::fromEntity)
-                .collect(Collectors.toList());
-        
-        return PageResponse.from(posts, content);
+        Page<Long> ids = postRepository.findIdsByTagSlugAndStatus(tagSlug, PostStatus.PUBLISHED, pageable);
+        return toPageResponse(ids);
+    }
+    
+    // Public: Get posts by tag by cursor
+    public CursorResponse<PostResponse> getPostsByTag(String tagSlug, String cursor) {
+        PostCursor after = PostCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, DEFAULT_PAGE_SIZE + 1);
+        List<Long> ids = after == null
+                ? postRepository.findFirstIdsByTagSlugAndStatus(tagSlug, PostStatus.PUBLISHED, limit)
+                : postRepository.findIdsByTagSlugAndStatusAfter(
+                        tagSlug, PostStatus.PUBLISHED, after.getCreatedAt(), after.getId(), limit);
+        return toCursorResponse(ids);
     }
     
     // Public: Search posts
     public PageResponse<PostResponse> searchPosts(String keyword, int page) {
         Pageable pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE);
-        Page<Post> posts = postRepository.searchByKeyword(keyword, PostStatus.PUBLISHED, pageable);
-        
-        List<PostResponse> content = posts.getContent().stream()
-                .map(PostResponse::fromEntity)
-                .collect(Collectors.toList());
-        
-        return PageResponse.from(posts, content);
+        Page<Long> ids = postSearchService.isReady()
+                ? postSearchService.search(keyword, pageable)
+                : postRepository.searchIdsByKeyword(keyword, PostStatus.PUBLISHED, pageable);
+        return toPageResponse(ids);
     }
     
     // Auth: Get user's posts
@@ -92,37 +159,31 @@ public class PostService {
                 .orElseThrow(() -> new ApiException.ResourceNotFoundException("User not found"));
         
         Pageable pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE);
-        Page<Post> posts;
+        Page<Long> ids;
         
         if (status != null) {
-            posts = postRepository.findByAuthorIdAndStatusOrderByCreatedAtDesc(user.getId(), status, pageable);
+            ids = postRepository.findIdsByAuthorIdAndStatus(user.getId(), status, pageable);
         } else {
-            posts = postRepository.findByAuthorIdOrderByCreatedAtDesc(user.getId(), pageable);
+            ids = postRepository.findIdsByAuthorId(user.getId(), pageable);
         }
         
-        List<PostResponse> content = posts.getContent().stream()
-                .map(post -> PostResponse.fromEntity(post, false))
-                .collect(Collectors.toList());
-        
-        return PageResponse.from(posts, content);
+        return toPageResponse(ids);
     }
     
-    // Admin: Get all posts
+    // Admin: Get all posts, the total comes from the counters instead of a COUNT query
     public PageResponse<PostResponse> getAllPosts(PostStatus status, int page) {
         Pageable pageable = PageRequest.of(page, DEFAULT_PAGE_SIZE);
-        Page<Post> posts;
+        Page<Long> ids;
         
         if (status != null) {
-            posts = postRepository.findAllByStatusWithAuthorAndCategory(status, pageable);
+            ids = new PageImpl<>(postRepository.findIdPageByStatus(status, pageable),
+                    pageable, counterService.getPostCount(status));
         } else {
-            posts = postRepository.findAllWithAuthorAndCategory(pageable);
+            ids = new PageImpl<>(postRepository.findIdPage(pageable),
+                    pageable, counterService.getPostCount());
         }
         
-        List<PostResponse> content = posts.getContent().stream()
-                .map(post -> PostResponse.fromEntity(post, false))
-                .collect(Collectors.toList());
-        
-        return PageResponse.from(posts, content);
+        return toPageResponse(ids);
     }
     
     // Auth: Create post
@@ -141,7 +202,7 @@ public class PostService {
         }
         
         // Check slug uniqueness
-        if (postRepository.existsBySlug(slug)) {
+        if (isSlugTaken(slug)) {
             // Append timestamp to make it unique
             slug = slug + "-" + System.currentTimeMillis();
         }
@@ -158,6 +219,7 @@ public class PostService {
                 .author(author)
                 .category(category)
                 .build();
+        ContentRenderer.Rendered rendered = contentPipeline.apply(post);
         
         // Add tags
         for (Tag tag : tags) {
@@ -165,7 +227,13 @@ public class PostService {
         }
         
         postRepository.save(post);
-        return PostResponse.fromEntity(post, true);
+        revisionService.record(post, author.getId(), null);
+        eventPublisher.publishEvent(PostChangedEvent.builder()
+                .postId(post.getId())
+                .type(PostChangedEvent.Type.CREATED)
+                .after(post)
+                .build());
+        return PostResponse.fromEntity(post, rendered);
     }
     
     // Auth: Update post
@@ -179,6 +247,12 @@ public class PostService {
             throw new ApiException.ForbiddenException("You can only edit your own posts");
         }
         
+        PostChangedEvent.PostChangedEventBuilder change = PostChangedEvent.builder()
+                .postId(post.getId())
+                .type(PostChangedEvent.Type.UPDATED)
+                .before(post);
+        RevisionService.Previous previous = RevisionService.Previous.of(post);
+        
         // Update category if changed
         if (!post.getCategory().getId().equals(request.getCategoryId())) {
             Category category = categoryRepository.findById(request.getCategoryId())
@@ -193,7 +267,7 @@ public class PostService {
         }
         
         if (!post.getSlug().equals(slug)) {
-            if (postRepository.existsBySlug(slug)) {
+            if (isSlugTaken(slug)) {
                 throw new ApiException.DuplicateResourceException("Slug already exists");
             }
             post.setSlug(slug);
@@ -202,21 +276,47 @@ public class PostService {
         // Update basic fields
         post.setTitle(request.getTitle());
         post.setContent(request.getContent());
+        ContentRenderer.Rendered rendered = contentPipeline.apply(post);
         post.setFeaturedImage(request.getFeaturedImage());
         
         if (request.getStatus() != null) {
             post.setStatus(request.getStatus());
         }
         
-        // Update tags
-        post.clearTags();
-        Set<Tag> tags = tagService.getOrCreateTags(request.getTags());
-        for (Tag tag : tags) {
-            post.addTag(tag);
+        // Update tags, only the added and removed ones touch post_tags
+        post.replaceTags(tagService.getOrCreateTags(request.getTags()));
+        
+        postRepository.save(post);
+        revisionService.record(post, editorId(post, userEmail), previous);
+        eventPublisher.publishEvent(change.after(post).build());
+        return PostResponse.fromEntity(post, rendered);
+    }
+    
+    // Auth: Restore the title and content of a revision, saved as a new revision
+    @Transactional
+    public PostResponse restoreRevision(Long id, int number, String userEmail, boolean isAdmin) {
+        Post post = postRepository.findById(id)
+                .orElseThrow(() -> new ApiException.ResourceNotFoundException("Post not found"));
+        
+        if (!isAdmin && !post.getAuthor().getEmail().equals(userEmail)) {
+            throw new ApiException.ForbiddenException("You can only edit your own posts");
         }
         
+        RevisionService.Revision revision = revisionService.getRevision(id, number);
+        PostChangedEvent.PostChangedEventBuilder change = PostChangedEvent.builder()
+                .postId(post.getId())
+                .type(PostChangedEvent.Type.UPDATED)
+                .before(post);
+        RevisionService.Previous previous = RevisionService.Previous.of(post);
+        
+        post.setTitle(revision.getTitle());
+        post.setContent(revision.getContent());
+        ContentRenderer.Rendered rendered = contentPipeline.apply(post);
+        
         postRepository.save(post);
-        return PostResponse.fromEntity(post, true);
+        revisionService.record(post, editorId(post, userEmail), previous);
+        eventPublisher.publishEvent(change.after(post).build());
+        return PostResponse.fromEntity(post, rendered);
     }
     
     // Auth: Delete post
@@ -230,7 +330,16 @@ public class PostService {
             throw new ApiException.ForbiddenException("You can only delete your own posts");
         }
         
+        PostChangedEvent change = PostChangedEvent.builder()
+                .postId(post.getId())
+                .type(PostChangedEvent.Type.DELETED)
+                .before(post)
+                .build();
+        
+        postViewRepository.deleteByPostId(post.getId());
+        revisionService.deleteRevisions(post.getId());
         postRepository.delete(post);
+        eventPublisher.publishEvent(change);
     }
     
     // Admin: Approve post
@@ -239,8 +348,14 @@ public class PostService {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ApiException.ResourceNotFoundException("Post not found"));
         
+        PostChangedEvent.PostChangedEventBuilder change = PostChangedEvent.builder()
+                .postId(post.getId())
+                .type(PostChangedEvent.Type.APPROVED)
+                .before(post);
+        
         post.setStatus(PostStatus.PUBLISHED);
         postRepository.save(post);
+        eventPublisher.publishEvent(change.after(post).build());
         
         return PostResponse.fromEntity(post, false);
     }
@@ -251,10 +366,105 @@ public class PostService {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ApiException.ResourceNotFoundException("Post not found"));
         
+        PostChangedEvent.PostChangedEventBuilder change = PostChangedEvent.builder()
+                .postId(post.getId())
+                .type(PostChangedEvent.Type.REJECTED)
+                .before(post);
+        
         post.setStatus(PostStatus.DRAFT);
         // Note: Nếu muốn lưu reason, bạn cần thêm field rejectionReason vào entity Post
         postRepository.save(post);
+        eventPublisher.publishEvent(change.after(post).build());
         
         return PostResponse.fromEntity(post, false);
     }
+    
+    // Hydrate one page of ids with author, category and tags, keeping the page order
+    private PageResponse<PostResponse> toPageResponse(Page<Long> ids) {
+        return PageResponse.from(ids, hydrate(ids.getContent()));
+    }
+    
+    // ids holds one row more than the page size when there is a next page
+    private CursorResponse<PostResponse> toCursorResponse(List<Long> ids) {
+        boolean hasNext = ids.size() > DEFAULT_PAGE_SIZE;
+        List<PostResponse> content = hydrate(hasNext ? ids.subList(0, DEFAULT_PAGE_SIZE) : ids);
+        
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            PostResponse last = content.get(content.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return CursorResponse.<PostResponse>builder()
+                .content(content)
+                .size(DEFAULT_PAGE_SIZE)
+                .nextCursor(nextCursor)
+                .last(!hasNext)
+                .build();
+    }
+    
+    // Feed-shaped posts in the given order; ids that no longer exist are skipped
+    public List<PostResponse> getPostsByIds(List<Long> ids) {
+        return hydrate(ids);
+    }
+    
+    // Category and tag slugs of the published posts among ids, as change events carry them
+    public Map<Long, PostChangedEvent.PostState> getPublishedStates(Collection<Long> ids) {
+        Map<Long, PostChangedEvent.PostState> states = new HashMap<>();
+        List<Long> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += STATE_BATCH_SIZE) {
+            List<Long> batch = all.subList(from, Math.min(all.size(), from + STATE_BATCH_SIZE));
+            Map<Long, Set<String>> tags = postRepository.findTagSummariesByPostIdIn(batch).stream()
+                    .collect(Collectors.groupingBy(PostTagSummary::getPostId,
+                            Collectors.mapping(PostTagSummary::getSlug, Collectors.toUnmodifiableSet())));
+            for (PostSummary summary : postRepository.findSummariesByIdIn(batch)) {
+                if (summary.getStatus() == PostStatus.PUBLISHED) {
+                    states.put(summary.getId(), new PostChangedEvent.PostState(summary.getSlug(),
+                            summary.getStatus(), summary.getCategorySlug(), tags.getOrDefault(summary.getId(), Set.of())));
+                }
+            }
+        }
+        return states;
+    }
+    
+    // The index answers "free" on its own; only a possible collision is confirmed in the database
+    private boolean isSlugTaken(String slug) {
+        return slugIndexes.posts().findId(slug).isPresent() && postRepository.existsBySlug(slug);
+    }
+    
+    // The author needs no lookup; an admin editing someone else's post does
+    private Long editorId(Post post, String userEmail) {
+        if (post.getAuthor().getEmail().equals(userEmail)) {
+            return post.getAuthor().getId();
+        }
+        return userRepository.findByEmail(userEmail)
+                .map(User::getId)
+                .orElseThrow(() -> new ApiException.ResourceNotFoundException("User not found"));
+    }
+    
+    // List views read summaries only, never the content column
+    private List<PostResponse> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, PostSummary> summariesById = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        
+        Map<Long, List<PostResponse.TagInfo>> tagsByPostId = postRepository.findTagSummariesByPostIdIn(ids).stream()
+                .collect(Collectors.groupingBy(PostTagSummary::getPostId, Collectors.mapping(
+                        tag -> PostResponse.TagInfo.builder()
+                                .id(tag.getId())
+                                .name(tag.getName())
+                                .slug(tag.getSlug())
+                                .build(),
+                        Collectors.toList())));
+        
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .map(summary -> PostResponse.fromSummary(
+                        summary, tagsByPostId.getOrDefault(summary.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
 }
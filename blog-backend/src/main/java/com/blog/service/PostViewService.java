@@ -0,0 +1,156 @@
+package com.blog.service;
+
+import com.blog.dto.projection.PostViews;
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.PostStatus;
+import com.blog.event.PostChangedEvent;
+import com.blog.repository.PostViewRepository;
+import com.blog.trending.TrendingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Post views are counted in memory and written in one batch every few seconds, so a hot post
+// never turns into a hot row. The most viewed posts are kept as finished responses and
+// refreshed after each flush.
+@Slf4j
+@Service
+public class PostViewService {
+    
+    // Views are only ever added; flushed is touched by the flushing thread alone
+    private static final class Pending {
+        final LongAdder views = new LongAdder();
+        long flushed;
+    }
+    
+    private final PostViewRepository postViewRepository;
+    private final PostService postService;
+    // A direct dependency, so the final flush on shutdown reaches it before its own snapshot
+    private final TrendingService trendingService;
+    private final TransactionTemplate transactionTemplate;
+    private final int popularSize;
+    
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private volatile List<PostResponse> popular = List.of();
+    
+    public PostViewService(
+            PostViewRepository postViewRepository,
+            PostService postService,
+            TrendingService trendingService,
+            TransactionTemplate transactionTemplate,
+            @Value("${blog.views.popular-size:10}") int popularSize) {
+        this.postViewRepository = postViewRepository;
+        this.postService = postService;
+        this.trendingService = trendingService;
+        this.transactionTemplate = transactionTemplate;
+        this.popularSize = popularSize;
+    }
+    
+    public void record(Long postId) {
+        Pending entry = pending.get(postId);
+        if (entry == null) {
+            entry = pending.computeIfAbsent(postId, id -> new Pending());
+        }
+        entry.views.increment();
+    }
+    
+    // Most viewed published posts as of the last flush
+    public List<PostResponse> getPopular() {
+        return popular;
+    }
+    
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval:PT5S}",
+               initialDelayString = "${blog.views.flush-interval:PT5S}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Long> totals = new HashMap<>();
+    
+        // Idle entries stay: record() increments outside any map lock, so removing one could drop
+        // a view landing on it. They go when the post is deleted, one per post at most.
+        pending.forEach((postId, entry) -> {
+            long total = entry.views.sum();
+            if (total > entry.flushed) {
+                deltas.put(postId, total - entry.flushed);
+                totals.put(postId, total);
+            }
+        });
+    
+        if (deltas.isEmpty()) {
+            return;
+        }
+    
+        Set<Long> deleted;
+        try {
+            deleted = transactionTemplate.execute(status -> postViewRepository.addViews(deltas));
+        } catch (RuntimeException e) {
+            // Nothing is marked flushed, the next run writes the same deltas again
+            log.warn("Flushing views for {} posts failed: {}", deltas.size(), e.getMessage());
+            return;
+        }
+    
+        // Views that landed after their post was deleted re-created its entry; no row was written
+        deleted.forEach(postId -> {
+            pending.remove(postId);
+            deltas.remove(postId);
+            totals.remove(postId);
+        });
+    
+        totals.forEach((postId, total) -> {
+            Pending entry = pending.get(postId);
+            if (entry != null) {
+                entry.flushed = total;
+            }
+        });
+        trendingService.addViews(deltas);
+        refreshPopular();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refreshPopular();
+    }
+    
+    // Titles, slugs and statuses are part of the list, so any change to a listed post reloads it
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            pending.remove(event.getPostId());
+        }
+        if (popular.stream().anyMatch(post -> post.getId().equals(event.getPostId()))) {
+            refreshPopular();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    private void refreshPopular() {
+        List<PostViews> mostViewed = postViewRepository.findMostViewed(
+                PostStatus.PUBLISHED, PageRequest.of(0, popularSize));
+        Map<Long, Long> views = mostViewed.stream()
+                .collect(Collectors.toMap(PostViews::getPostId, PostViews::getViews));
+    
+        List<PostResponse> posts = postService.getPostsByIds(mostViewed.stream()
+                .map(PostViews::getPostId)
+                .collect(Collectors.toList()));
+        posts.forEach(post -> post.setViews(views.get(post.getId())));
+        popular = List.copyOf(posts);
+    }
+}
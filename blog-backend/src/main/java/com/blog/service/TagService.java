@@ -8,8 +8,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -18,6 +23,10 @@ import java.util.stream.Collectors;
 public class TagService {
     
     private final TagRepository tagRepository;
+    private final CounterService counterService;
+    
+    private static final int MAX_CREATE_ATTEMPTS = 3;
+    private static final int MAX_SLUG_LENGTH = 50;
     
     public List<TagResponse> getAllTags() {
         return tagRepository.findAll().stream()
@@ -31,29 +40,85 @@ public class TagService {
         return TagResponse.fromEntity(tag);
     }
     
+    // One IN lookup for existing tags, one batched insert for the missing ones. A tag created
+    // concurrently by another request is skipped by the insert and picked up by the re-read.
     @Transactional
     public Set<Tag> getOrCreateTags(List<String> tagNames) {
         if (tagNames == null || tagNames.isEmpty()) {
             return new HashSet<>();
         }
         
-        Set<Tag> tags = new HashSet<>();
-        
+        Set<String> names = new LinkedHashSet<>();
         for (String name : tagNames) {
             String trimmedName = name.trim();
-            if (trimmedName.isEmpty()) continue;
+            if (!trimmedName.isEmpty()) {
+                names.add(trimmedName);
+            }
+        }
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        
+        Map<String, Tag> tagsByName = new HashMap<>();
+        tagRepository.findByNameIn(names).forEach(tag -> tagsByName.put(tag.getName(), tag));
+        
+        // Retried only when a concurrent insert took one of our new slugs under a different name.
+        // Inserted in name order: two requests creating overlapping tags then wait on each other's
+        // rows in the same order instead of deadlocking.
+        for (int attempt = 0; attempt < MAX_CREATE_ATTEMPTS && tagsByName.size() < names.size(); attempt++) {
+            List<String> missing = names.stream()
+                    .filter(name -> !tagsByName.containsKey(name))
+                    .sorted()
+                    .collect(Collectors.toList());
+            
+            int inserted = tagRepository.insertIgnoringConflicts(newTags(missing));
+            counterService.add(CounterService.Counter.TAGS, inserted);
             
-            Tag tag = tagRepository.findByName(trimmedName)
-                    .orElseGet(() -> {
-                        Tag newTag = Tag.builder()
-                                .name(trimmedName)
-                                .slug(SlugUtil.toSlug(trimmedName))
-                                .build();
-                        return tagRepository.save(newTag);
-                    });
-            tags.add(tag);
+            tagRepository.findByNameIn(missing).forEach(tag -> tagsByName.put(tag.getName(), tag));
+        }
+        
+        if (tagsByName.size() < names.size()) {
+            throw new ApiException.BadRequestException("Could not create tags, please try again");
+        }
+        
+        return new HashSet<>(tagsByName.values());
+    }
+    
+    // Slugs that are already taken, in the database or earlier in this batch, get a numeric suffix
+    private List<Tag> newTags(List<String> names) {
+        Map<String, String> slugsByName = new LinkedHashMap<>();
+        for (String name : names) {
+            String slug = SlugUtil.toSlug(name);
+            slugsByName.put(name, slug.isEmpty() ? "tag" : truncate(slug, MAX_SLUG_LENGTH));
+        }
+        
+        Set<String> taken = new HashSet<>(tagRepository.findSlugsIn(slugsByName.values()));
+        Set<String> used = new HashSet<>();
+        List<Tag> tags = new ArrayList<>();
+        
+        for (Map.Entry<String, String> entry : slugsByName.entrySet()) {
+            String base = entry.getValue();
+            String slug = base;
+            int suffix = 1;
+            while (used.contains(slug) || taken.contains(slug)) {
+                suffix++;
+                String tail = "-" + suffix;
+                slug = truncate(base, MAX_SLUG_LENGTH - tail.length()) + tail;
+                if (!used.contains(slug) && !taken.contains(slug)) {
+                    taken.addAll(tagRepository.findSlugsIn(List.of(slug)));
+                }
+            }
+            used.add(slug);
+            tags.add(Tag.builder()
+                    .name(entry.getKey())
+                    .slug(slug)
+                    .build());
         }
         
         return tags;
     }
+    
+    private static String truncate(String value, int length) {
+        return value.length() > length ? value.substring(0, length) : value;
+    }
 }
@@ -0,0 +1,138 @@
+package com.blog.syndication;
+
+import com.blog.dto.response.PostResponse;
+import lombok.Value;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// RSS 2.0 and Atom 1.0 for one list of posts; links point at the frontend
+public final class FeedXml {
+    
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+    private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+    
+    // What the feed is about: the whole site, a category or a tag
+    @Value
+    public static class Channel {
+        String title;
+        String description;
+        String link;
+    }
+    
+    private FeedXml() {
+    }
+    
+    public static XmlDocument rss(Channel channel, List<PostResponse> posts, String siteUrl) {
+        return XmlDocument.write(xml -> {
+            xml.writeStartElement("rss");
+            xml.writeAttribute("version", "2.0");
+            xml.writeNamespace("dc", DC_NS);
+            xml.writeStartElement("channel");
+            element(xml, "title", channel.getTitle());
+            element(xml, "link", channel.getLink());
+            element(xml, "description", channel.getDescription());
+            if (!posts.isEmpty()) {
+                element(xml, "lastBuildDate", rfc1123(lastUpdated(posts)));
+            }
+    
+            for (PostResponse post : posts) {
+                String link = postLink(siteUrl, post);
+                xml.writeStartElement("item");
+                element(xml, "title", post.getTitle());
+                element(xml, "link", link);
+                xml.writeStartElement("guid");
+                xml.writeAttribute("isPermaLink", "true");
+                xml.writeCharacters(link);
+                xml.writeEndElement();
+                element(xml, "pubDate", rfc1123(post.getCreatedAt()));
+                element(xml, "description", post.getExcerpt());
+                xml.writeStartElement("dc", "creator", DC_NS);
+                xml.writeCharacters(post.getAuthor().getUsername());
+                xml.writeEndElement();
+                element(xml, "category", post.getCategory().getName());
+                for (PostResponse.TagInfo tag : post.getTags()) {
+                    element(xml, "category", tag.getName());
+                }
+                xml.writeEndElement();
+            }
+    
+            xml.writeEndElement();
+            xml.writeEndElement();
+        });
+    }
+    
+    public static XmlDocument atom(Channel channel, List<PostResponse> posts, String siteUrl) {
+        return XmlDocument.write(xml -> {
+            xml.writeStartElement("feed");
+            xml.writeDefaultNamespace(ATOM_NS);
+            element(xml, "title", channel.getTitle());
+            element(xml, "subtitle", channel.getDescription());
+            link(xml, channel.getLink());
+            element(xml, "id", channel.getLink());
+            element(xml, "updated", rfc3339(posts.isEmpty() ? LocalDateTime.now() : lastUpdated(posts)));
+    
+            for (PostResponse post : posts) {
+                String link = postLink(siteUrl, post);
+                xml.writeStartElement("entry");
+                element(xml, "title", post.getTitle());
+                link(xml, link);
+                element(xml, "id", link);
+                element(xml, "published", rfc3339(post.getCreatedAt()));
+                element(xml, "updated", rfc3339(updated(post)));
+                element(xml, "summary", post.getExcerpt());
+                xml.writeStartElement("author");
+                element(xml, "name", post.getAuthor().getUsername());
+                xml.writeEndElement();
+                category(xml, post.getCategory().getName());
+                for (PostResponse.TagInfo tag : post.getTags()) {
+                    category(xml, tag.getName());
+                }
+                xml.writeEndElement();
+            }
+    
+            xml.writeEndElement();
+        });
+    }
+    
+    static String postLink(String siteUrl, PostResponse post) {
+        return siteUrl + "/posts/" + post.getSlug();
+    }
+    
+    static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+    
+    static String rfc3339(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+    
+    private static void link(XMLStreamWriter xml, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", "alternate");
+        xml.writeAttribute("href", href);
+    }
+    
+    private static void category(XMLStreamWriter xml, String term) throws XMLStreamException {
+        xml.writeEmptyElement("category");
+        xml.writeAttribute("term", term);
+    }
+    
+    private static LocalDateTime updated(PostResponse post) {
+        return post.getUpdatedAt() != null ? post.getUpdatedAt() : post.getCreatedAt();
+    }
+    
+    private static LocalDateTime lastUpdated(List<PostResponse> posts) {
+        return posts.stream().map(FeedXml::updated).max(LocalDateTime::compareTo).orElseThrow();
+    }
+    
+    private static String rfc1123(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+}
@@ -0,0 +1,81 @@
+package com.blog.syndication;
+
+import lombok.Value;
+
+import javax.xml.stream.XMLStreamException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// sitemaps.org urlsets and sitemap indexes, written entry by entry as the rows are read
+public final class SitemapXml {
+    
+    private static final String NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    
+    // Protocol limit per file
+    public static final int MAX_URLS = 50_000;
+    
+    @FunctionalInterface
+    public interface UrlSink {
+        void url(String loc, LocalDateTime lastModified) throws XMLStreamException;
+    }
+    
+    @FunctionalInterface
+    public interface UrlSource {
+        void writeTo(UrlSink sink) throws XMLStreamException;
+    }
+    
+    @Value
+    public static class Urlset {
+        XmlDocument document;
+        int urls;
+        LocalDateTime lastModified; // null when no url had one
+    }
+    
+    @Value
+    public static class IndexEntry {
+        String loc;
+        LocalDateTime lastModified;
+    }
+    
+    private SitemapXml() {
+    }
+    
+    public static Urlset urlset(UrlSource source) {
+        int[] urls = {0};
+        LocalDateTime[] lastModified = {null};
+        XmlDocument document = XmlDocument.write(xml -> {
+            xml.writeStartElement("urlset");
+            xml.writeDefaultNamespace(NS);
+            source.writeTo((loc, modified) -> {
+                xml.writeStartElement("url");
+                FeedXml.element(xml, "loc", loc);
+                if (modified != null) {
+                    FeedXml.element(xml, "lastmod", FeedXml.rfc3339(modified));
+                    if (lastModified[0] == null || modified.isAfter(lastModified[0])) {
+                        lastModified[0] = modified;
+                    }
+                }
+                xml.writeEndElement();
+                urls[0]++;
+            });
+            xml.writeEndElement();
+        });
+        return new Urlset(document, urls[0], lastModified[0]);
+    }
+    
+    public static XmlDocument index(List<IndexEntry> sitemaps) {
+        return XmlDocument.write(xml -> {
+            xml.writeStartElement("sitemapindex");
+            xml.writeDefaultNamespace(NS);
+            for (IndexEntry sitemap : sitemaps) {
+                xml.writeStartElement("sitemap");
+                FeedXml.element(xml, "loc", sitemap.getLoc());
+                if (sitemap.getLastModified() != null) {
+                    FeedXml.element(xml, "lastmod", FeedXml.rfc3339(sitemap.getLastModified()));
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        });
+    }
+}
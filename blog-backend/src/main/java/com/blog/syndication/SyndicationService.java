@@ -0,0 +1,397 @@
+package com.blog.syndication;
+
+import com.blog.cache.FeedSnapshots.Feed;
+import com.blog.cache.MonitoredCache;
+import com.blog.dto.projection.PostLocation;
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.Category;
+import com.blog.entity.PostStatus;
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.exception.ApiException;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.PostRepository;
+import com.blog.repository.TagRepository;
+import com.blog.service.PostService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.xml.stream.XMLStreamException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// RSS/Atom feeds and sitemaps, generated on first request and kept gzipped until a post or
+// category change actually affects them: a feed only when the change touches a post it lists
+// or brings a post into its scope, a sitemap only for the page holding the changed post.
+// Sitemap pages are fixed id ranges, so regenerating one reads just that range.
+@Slf4j
+@Service
+public class SyndicationService implements MonitoredCache {
+    
+    public enum Format {
+        RSS,
+        ATOM
+    }
+    
+    @lombok.Value
+    private static class FeedKey {
+        Format format;
+        Feed feed;
+    }
+    
+    @lombok.Value
+    private static class CachedFeed {
+        XmlDocument document;
+        Set<Long> postIds;
+    }
+    
+    // One urlset when everything fits, otherwise an index over "main" (home and categories)
+    // and post pages starting at the given ids
+    @lombok.Value
+    private static class SitemapLayout {
+        boolean single;
+        List<Long> pageStarts;
+    
+        int pageOf(Long postId) {
+            int index = Collections.binarySearch(pageStarts, postId);
+            return Math.max(0, index >= 0 ? index : -index - 2);
+        }
+    }
+    
+    private static class LayoutOverflowException extends RuntimeException {
+        LayoutOverflowException(String sitemap) {
+            super(sitemap, null, false, false);
+        }
+    }
+    
+    public static final String SITEMAP = "sitemap";
+    private static final String MAIN = "main";
+    private static final String POSTS = "posts-";
+    private static final int LOCATION_BATCH = 1000;
+    
+    private final PostRepository postRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final PostService postService;
+    private final MeterRegistry meterRegistry;
+    private final String siteUrl;
+    private final String publicUrl;
+    private final String title;
+    private final int feedSize;
+    private final int sitemapSize;
+    
+    private final Cache<FeedKey, CachedFeed> feeds;
+    // Bumped on every feed invalidation so a generation that raced a write is not stored
+    private final AtomicLong feedGeneration = new AtomicLong();
+    private final Object feedLock = new Object();
+    
+    // Generated under sitemapLock; reads of generated documents are lock-free
+    private final Map<String, SitemapXml.Urlset> sitemaps = new ConcurrentHashMap<>();
+    private volatile SitemapLayout layout;
+    private final AtomicLong sitemapGeneration = new AtomicLong();
+    private final Object sitemapLock = new Object();
+    
+    public SyndicationService(
+            PostRepository postRepository,
+            CategoryRepository categoryRepository,
+            TagRepository tagRepository,
+            PostService postService,
+            MeterRegistry meterRegistry,
+            @Value("${blog.syndication.site-url}") String siteUrl,
+            @Value("${blog.public-url}") String publicUrl,
+            @Value("${blog.syndication.title:DevBlog}") String title,
+            @Value("${blog.syndication.feed-size:20}") int feedSize,
+            @Value("${blog.syndication.sitemap-size:50000}") int sitemapSize,
+            @Value("${blog.syndication.max-bytes:16777216}") long maxBytes) {
+        this.postRepository = postRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.postService = postService;
+        this.meterRegistry = meterRegistry;
+        this.siteUrl = trimSlash(siteUrl);
+        this.publicUrl = trimSlash(publicUrl);
+        this.title = title;
+        this.feedSize = feedSize;
+        this.sitemapSize = Math.min(sitemapSize, SitemapXml.MAX_URLS);
+        this.feeds = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((FeedKey key, CachedFeed feed) -> feed.getDocument().getGzipped().length)
+                .recordStats()
+                .build();
+    }
+    
+    public XmlDocument getFeed(Format format, Feed feed) {
+        FeedKey key = new FeedKey(format, feed);
+        CachedFeed cached = feeds.getIfPresent(key);
+        if (cached != null) {
+            return cached.getDocument();
+        }
+    
+        long startGeneration = feedGeneration.get();
+        FeedXml.Channel channel = channel(feed);
+        List<PostResponse> posts = postService.getPostsByIds(feedIds(feed));
+        XmlDocument document = format == Format.RSS
+                ? FeedXml.rss(channel, posts, siteUrl)
+                : FeedXml.atom(channel, posts, siteUrl);
+        meterRegistry.counter("blog.syndication.generated", "document", "feed").increment();
+    
+        synchronized (feedLock) {
+            if (feedGeneration.get() == startGeneration) {
+                feeds.put(key, new CachedFeed(document, posts.stream().map(PostResponse::getId).collect(Collectors.toUnmodifiableSet())));
+            }
+        }
+        return document;
+    }
+    
+    // "sitemap" is the urlset or the index; "main" and "posts-N" exist only behind an index
+    public Optional<XmlDocument> getSitemap(String name) {
+        SitemapXml.Urlset cached = sitemaps.get(name);
+        if (cached != null) {
+            return Optional.of(cached.getDocument());
+        }
+    
+        synchronized (sitemapLock) {
+            // A page outgrowing its id range (posts approved into an old range) calls for a new layout
+            for (int attempt = 0; attempt < 2; attempt++) {
+                long startGeneration = sitemapGeneration.get();
+                try {
+                    Optional<SitemapXml.Urlset> generated = generateSitemap(layout(), name, startGeneration);
+                    generated.ifPresent(urlset -> store(name, urlset, startGeneration));
+                    return generated.map(SitemapXml.Urlset::getDocument);
+                } catch (LayoutOverflowException e) {
+                    log.info("Sitemap {} outgrew its page, recomputing the layout", e.getMessage());
+                    layout = null;
+                    sitemaps.clear();
+                }
+            }
+            throw new IllegalStateException("Sitemap layout keeps overflowing");
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        if (!event.isPublicChange()) {
+            return;
+        }
+    
+        synchronized (feedLock) {
+            feedGeneration.incrementAndGet();
+            feeds.asMap().entrySet().removeIf(entry -> affects(entry.getKey().getFeed(), entry.getValue(), event));
+        }
+    
+        // Published before or after: its URL or lastmod changed
+        sitemapGeneration.incrementAndGet();
+        SitemapLayout current = layout;
+        if (current == null) {
+            sitemaps.clear();
+        } else if (current.isSingle()) {
+            sitemaps.remove(SITEMAP);
+        } else {
+            sitemaps.remove(POSTS + (current.pageOf(event.getPostId()) + 1));
+            sitemaps.remove(SITEMAP);
+        }
+    }
+    
+    // Category names are in every feed; category URLs are in the main sitemap
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        synchronized (feedLock) {
+            feedGeneration.incrementAndGet();
+            feeds.invalidateAll();
+        }
+        sitemapGeneration.incrementAndGet();
+        sitemaps.remove(MAIN);
+        sitemaps.remove(SITEMAP);
+    }
+    
+    @Override
+    public String getName() {
+        return "syndication-feeds";
+    }
+    
+    @Override
+    public CacheStats stats() {
+        return feeds.stats();
+    }
+    
+    @Override
+    public long size() {
+        return feeds.estimatedSize();
+    }
+    
+    private static boolean affects(Feed feed, CachedFeed cached, PostChangedEvent event) {
+        return cached.getPostIds().contains(event.getPostId())
+                || inScope(feed, event.getAfter()) && !inScope(feed, event.getBefore());
+    }
+    
+    private static boolean inScope(Feed feed, PostChangedEvent.PostState state) {
+        if (state == null || !state.isPublished()) {
+            return false;
+        }
+        return switch (feed.getType()) {
+            case HOME -> true;
+            case CATEGORY -> feed.getSlug().equals(state.getCategorySlug());
+            case TAG -> state.getTagSlugs().contains(feed.getSlug());
+        };
+    }
+    
+    private FeedXml.Channel channel(Feed feed) {
+        return switch (feed.getType()) {
+            case HOME -> new FeedXml.Channel(title, "Latest posts on " + title, siteUrl + "/");
+            case CATEGORY -> {
+                String name = categoryRepository.findBySlug(feed.getSlug())
+                        .orElseThrow(() -> new ApiException.ResourceNotFoundException("Category not found"))
+                        .getName();
+                yield new FeedXml.Channel(title + " - " + name, "Latest posts in " + name,
+                        siteUrl + "/categories/" + feed.getSlug());
+            }
+            case TAG -> {
+                String name = tagRepository.findBySlug(feed.getSlug())
+                        .orElseThrow(() -> new ApiException.ResourceNotFoundException("Tag not found"))
+                        .getName();
+                yield new FeedXml.Channel(title + " - #" + name, "Latest posts tagged " + name,
+                        siteUrl + "/tags/" + feed.getSlug());
+            }
+        };
+    }
+    
+    private List<Long> feedIds(Feed feed) {
+        PageRequest first = PageRequest.of(0, feedSize);
+        return switch (feed.getType()) {
+            case HOME -> postRepository.findFirstIdsByStatus(PostStatus.PUBLISHED, first);
+            case CATEGORY -> categoryRepository.findIdBySlug(feed.getSlug())
+                    .map(id -> postRepository.findFirstIdsByCategoryIdAndStatus(id, PostStatus.PUBLISHED, first))
+                    .orElse(List.of());
+            case TAG -> postRepository.findFirstIdsByTagSlugAndStatus(feed.getSlug(), PostStatus.PUBLISHED, first);
+        };
+    }
+    
+    // Pages are filled to 90% so posts approved into an old id range rarely overflow one
+    private SitemapLayout layout() {
+        SitemapLayout current = layout;
+        if (current != null) {
+            return current;
+        }
+    
+        long posts = postRepository.countByStatus(PostStatus.PUBLISHED);
+        long categories = categoryRepository.count();
+        if (1 + categories + posts <= sitemapSize) {
+            current = new SitemapLayout(true, List.of());
+        } else {
+            int perPage = Math.max(1, sitemapSize * 9 / 10);
+            List<Long> starts = new ArrayList<>();
+            starts.add(0L);
+            for (long offset = perPage; offset < posts; offset += perPage) {
+                postRepository.findIdPageByStatusOrderById(PostStatus.PUBLISHED, PageRequest.of((int) offset, 1))
+                        .forEach(starts::add);
+            }
+            current = new SitemapLayout(false, List.copyOf(starts));
+        }
+        layout = current;
+        return current;
+    }
+    
+    private Optional<SitemapXml.Urlset> generateSitemap(SitemapLayout layout, String name, long startGeneration) {
+        Optional<SitemapXml.Urlset> generated;
+        if (layout.isSingle()) {
+            generated = SITEMAP.equals(name)
+                    ? Optional.of(SitemapXml.urlset(sink -> {
+                        writeMain(sink);
+                        writePosts(sink, 0L, Long.MAX_VALUE);
+                    }))
+                    : Optional.empty();
+        } else if (SITEMAP.equals(name)) {
+            generated = Optional.of(index(layout, startGeneration));
+        } else if (MAIN.equals(name)) {
+            generated = Optional.of(SitemapXml.urlset(this::writeMain));
+        } else {
+            generated = postPage(layout, name).map(page -> SitemapXml.urlset(sink -> writePosts(sink,
+                    layout.getPageStarts().get(page),
+                    page + 1 < layout.getPageStarts().size() ? layout.getPageStarts().get(page + 1) : Long.MAX_VALUE)));
+        }
+    
+        if (generated.isPresent()) {
+            if (generated.get().getUrls() > sitemapSize) {
+                throw new LayoutOverflowException(name);
+            }
+            meterRegistry.counter("blog.syndication.generated", "document", "sitemap").increment();
+        }
+        return generated;
+    }
+    
+    // Lists every page with its lastmod, generating the pages that are not cached yet
+    private SitemapXml.Urlset index(SitemapLayout layout, long startGeneration) {
+        List<SitemapXml.IndexEntry> entries = new ArrayList<>();
+        entries.add(new SitemapXml.IndexEntry(publicUrl + "/sitemaps/" + MAIN + ".xml", null));
+        for (int page = 0; page < layout.getPageStarts().size(); page++) {
+            String name = POSTS + (page + 1);
+            SitemapXml.Urlset urlset = sitemaps.get(name);
+            if (urlset == null) {
+                urlset = generateSitemap(layout, name, startGeneration).orElseThrow();
+                store(name, urlset, startGeneration);
+            }
+            entries.add(new SitemapXml.IndexEntry(publicUrl + "/sitemaps/" + name + ".xml", urlset.getLastModified()));
+        }
+        return new SitemapXml.Urlset(SitemapXml.index(entries), entries.size(), null);
+    }
+    
+    // Only if no change came in since generating started, so a stale document is never kept
+    private void store(String name, SitemapXml.Urlset urlset, long startGeneration) {
+        if (sitemapGeneration.get() == startGeneration) {
+            sitemaps.put(name, urlset);
+        }
+    }
+    
+    private Optional<Integer> postPage(SitemapLayout layout, String name) {
+        if (!name.startsWith(POSTS)) {
+            return Optional.empty();
+        }
+        try {
+            int page = Integer.parseInt(name.substring(POSTS.length())) - 1;
+            return page >= 0 && page < layout.getPageStarts().size() ? Optional.of(page) : Optional.empty();
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+    
+    private void writeMain(SitemapXml.UrlSink sink) throws XMLStreamException {
+        sink.url(siteUrl + "/", null);
+        for (Category category : categoryRepository.findAll()) {
+            sink.url(siteUrl + "/categories/" + category.getSlug(), null);
+        }
+    }
+    
+    // Published posts with fromId <= id < toId, read in id order a batch at a time
+    private void writePosts(SitemapXml.UrlSink sink, long fromId, long toId) throws XMLStreamException {
+        long afterId = fromId - 1;
+        while (true) {
+            List<PostLocation> batch = postRepository.findLocationsBetween(
+                    PostStatus.PUBLISHED, afterId, toId, PageRequest.of(0, LOCATION_BATCH));
+            for (PostLocation location : batch) {
+                sink.url(siteUrl + "/posts/" + location.getSlug(), location.getUpdatedAt());
+            }
+            if (batch.size() < LOCATION_BATCH) {
+                return;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+    
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,74 @@
+package com.blog.syndication;
+
+import lombok.Getter;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// A generated feed or sitemap, kept gzipped only: the XML is streamed straight into the
+// compressor, so generating never holds the uncompressed document. The ETag is derived from
+// the bytes, so an unchanged document keeps its validator across regenerations and restarts.
+@Getter
+public class XmlDocument {
+    
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    
+    @FunctionalInterface
+    public interface Body {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+    
+    private final byte[] gzipped;
+    private final String etag;
+    
+    private XmlDocument(byte[] gzipped) {
+        this.gzipped = gzipped;
+        this.etag = "\"x" + digest(gzipped) + "\"";
+    }
+    
+    public static XmlDocument write(Body body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(gzip, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            body.write(xml);
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Cannot write XML document", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new XmlDocument(bytes.toByteArray());
+    }
+    
+    // For the rare client that does not accept gzip
+    public byte[] inflate() {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.blog.trending;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Exponentially decayed post scores with a bounded top-K per bucket (everything, each category,
+// each tag). Scores are stored relative to a landmark time: a view at time t adds
+// e^(lambda * (t - landmark)), so every score decays by the same factor and time alone never
+// reorders a ranking. Since stored scores only grow, each top-K stays exact when updated in
+// place; only removing a post needs a rescan of its buckets. Not thread-safe, TrendingService
+// serializes access.
+public class TrendingRanking {
+    
+    public static final String ALL = "all";
+    
+    // Rescale before e^(lambda * age) gets anywhere near overflowing a double
+    private static final double MAX_EXPONENT = 40;
+    // Decayed scores below this are forgotten at a rescale, unless the post is still ranked
+    private static final double MIN_SCORE = 0.01;
+    
+    private static final Comparator<Ranked> ORDER = Comparator.comparingDouble(Ranked::getScore).reversed()
+            .thenComparing(Ranked::getPostId, Comparator.reverseOrder());
+    
+    @Value
+    public static class Membership {
+        String categorySlug;
+        Set<String> tagSlugs;
+    
+        Set<String> buckets() {
+            Set<String> buckets = new HashSet<>();
+            buckets.add(ALL);
+            buckets.add(categoryBucket(categorySlug));
+            tagSlugs.forEach(tag -> buckets.add(tagBucket(tag)));
+            return buckets;
+        }
+    }
+    
+    @Value
+    private static class Ranked {
+        double score;
+        Long postId;
+    }
+    
+    private static class Bucket {
+        final TreeSet<Ranked> ranked = new TreeSet<>(ORDER);
+        final Map<Long, Double> members = new HashMap<>();
+    }
+    
+    private final double lambda; // per millisecond
+    private final int size;
+    private long landmark;
+    
+    private final Map<Long, Double> scores = new HashMap<>();
+    // Published posts only; views of anything else are ignored
+    private final Map<Long, Membership> memberships = new HashMap<>();
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    
+    public TrendingRanking(double halfLifeMillis, int size, long now) {
+        this.lambda = Math.log(2) / halfLifeMillis;
+        this.size = size;
+        this.landmark = now;
+    }
+    
+    public static String categoryBucket(String slug) {
+        return "category:" + slug;
+    }
+    
+    public static String tagBucket(String slug) {
+        return "tag:" + slug;
+    }
+    
+    public boolean isKnown(Long postId) {
+        return memberships.containsKey(postId);
+    }
+    
+    // Adds weight (in views) at time now; returns the buckets whose top-K changed
+    public Set<String> add(Long postId, double weight, long now) {
+        Membership membership = memberships.get(postId);
+        if (membership == null || weight <= 0) {
+            return Set.of();
+        }
+    
+        Set<String> changed = new HashSet<>();
+        if (lambda * (now - landmark) > MAX_EXPONENT) {
+            rescale(now);
+            changed.addAll(buckets.keySet());
+        }
+    
+        double score = scores.merge(postId, weight * Math.exp(lambda * (now - landmark)), Double::sum);
+        for (String bucket : membership.buckets()) {
+            if (offer(bucket, postId, score)) {
+                changed.add(bucket);
+            }
+        }
+        return changed;
+    }
+    
+    // Starts ranking a published post, or moves it to new buckets after its category or tags changed
+    public Set<String> put(Long postId, Membership membership) {
+        Membership previous = memberships.put(postId, membership);
+        if (membership.equals(previous)) {
+            return Set.of();
+        }
+    
+        Set<String> changed = new HashSet<>();
+        if (previous != null) {
+            Set<String> left = previous.buckets();
+            left.removeAll(membership.buckets());
+            for (String bucket : left) {
+                if (evict(bucket, postId)) {
+                    changed.add(bucket);
+                }
+            }
+        }
+    
+        Double score = scores.get(postId);
+        if (score != null) {
+            for (String bucket : membership.buckets()) {
+                if (offer(bucket, postId, score)) {
+                    changed.add(bucket);
+                }
+            }
+        }
+        return changed;
+    }
+    
+    // Unpublished or deleted
+    public Set<String> remove(Long postId) {
+        Membership membership = memberships.remove(postId);
+        scores.remove(postId);
+        if (membership == null) {
+            return Set.of();
+        }
+    
+        Set<String> changed = new HashSet<>();
+        for (String bucket : membership.buckets()) {
+            if (evict(bucket, postId)) {
+                changed.add(bucket);
+            }
+        }
+        return changed;
+    }
+    
+    public Set<String> renameCategory(String from, String to) {
+        memberships.replaceAll((postId, membership) -> from.equals(membership.getCategorySlug())
+                ? new Membership(to, membership.getTagSlugs())
+                : membership);
+        Bucket bucket = buckets.remove(categoryBucket(from));
+        if (bucket == null) {
+            return Set.of();
+        }
+        buckets.put(categoryBucket(to), bucket);
+        return Set.of(categoryBucket(from), categoryBucket(to));
+    }
+    
+    // Buckets exist while at least one scored post is in them
+    public boolean hasBucket(String bucket) {
+        return buckets.containsKey(bucket);
+    }
+    
+    public List<Long> top(String bucket) {
+        Bucket ranked = buckets.get(bucket);
+        if (ranked == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(ranked.ranked.size());
+        ranked.ranked.forEach(entry -> ids.add(entry.getPostId()));
+        return ids;
+    }
+    
+    public boolean isIn(Long postId, String bucket) {
+        Membership membership = memberships.get(postId);
+        return membership != null && membership.buckets().contains(bucket);
+    }
+    
+    // Scores as of now, for snapshots
+    public Map<Long, Double> decayedScores(long now) {
+        double decay = Math.exp(-lambda * (now - landmark));
+        Map<Long, Double> decayed = new HashMap<>();
+        scores.forEach((postId, score) -> {
+            if (score * decay >= MIN_SCORE) {
+                decayed.put(postId, score * decay);
+            }
+        });
+        return decayed;
+    }
+    
+    // Score as it was at savedAt; the post is ranked once its membership is known
+    public void restore(Long postId, double score, long savedAt) {
+        scores.merge(postId, score * Math.exp(lambda * (savedAt - landmark)), Double::sum);
+    }
+    
+    public int getScoredPosts() {
+        return scores.size();
+    }
+    
+    public int getBuckets() {
+        return buckets.size();
+    }
+    
+    private boolean offer(String bucketName, Long postId, double score) {
+        Bucket bucket = buckets.computeIfAbsent(bucketName, name -> new Bucket());
+        Double current = bucket.members.get(postId);
+        if (current != null) {
+            bucket.ranked.remove(new Ranked(current, postId));
+        } else if (bucket.ranked.size() >= size) {
+            Ranked last = bucket.ranked.last();
+            if (ORDER.compare(new Ranked(score, postId), last) >= 0) {
+                return false;
+            }
+            bucket.ranked.remove(last);
+            bucket.members.remove(last.getPostId());
+        }
+        bucket.ranked.add(new Ranked(score, postId));
+        bucket.members.put(postId, score);
+        return true;
+    }
+    
+    // Drops the post and refills the freed place from every scored post of the bucket
+    private boolean evict(String bucketName, Long postId) {
+        Bucket bucket = buckets.get(bucketName);
+        if (bucket == null) {
+            return false;
+        }
+        Double current = bucket.members.remove(postId);
+        if (current == null) {
+            return false;
+        }
+        bucket.ranked.remove(new Ranked(current, postId));
+    
+        scores.forEach((candidate, score) -> {
+            if (!bucket.members.containsKey(candidate) && isIn(candidate, bucketName)) {
+                offer(bucketName, candidate, score);
+            }
+        });
+        if (bucket.members.isEmpty()) {
+            buckets.remove(bucketName);
+        }
+        return true;
+    }
+    
+    // Moves the landmark to now. Relative order is unchanged, so the buckets keep their members.
+    private void rescale(long now) {
+        double decay = Math.exp(-lambda * (now - landmark));
+        landmark = now;
+    
+        Set<Long> ranked = new HashSet<>();
+        buckets.values().forEach(bucket -> ranked.addAll(bucket.members.keySet()));
+        scores.replaceAll((postId, score) -> score * decay);
+        scores.entrySet().removeIf(entry -> entry.getValue() < MIN_SCORE && !ranked.contains(entry.getKey()));
+    
+        for (Bucket bucket : buckets.values()) {
+            bucket.ranked.clear();
+            bucket.members.replaceAll((postId, score) -> scores.get(postId));
+            bucket.members.forEach((postId, score) -> bucket.ranked.add(new Ranked(score, postId)));
+        }
+    }
+}
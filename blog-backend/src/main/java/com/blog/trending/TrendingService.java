@@ -0,0 +1,244 @@
+package com.blog.trending;
+
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.TrendingScore;
+import com.blog.event.CategoryChangedEvent;
+import com.blog.event.PostChangedEvent;
+import com.blog.repository.TrendingScoreRepository;
+import com.blog.service.PostService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+// Trending posts overall, per category and per tag. Views arrive in batches from the view
+// counter flush, publishes add a starting boost. Finished lists are kept per bucket until the
+// bucket's ranking changes, so reads are a map lookup. Scores are saved periodically and on
+// shutdown, and restored at startup.
+@Slf4j
+@Service
+public class TrendingService {
+    
+    private final TrendingScoreRepository trendingScoreRepository;
+    private final PostService postService;
+    private final TransactionTemplate transactionTemplate;
+    private final double publishBoost;
+    
+    // Guarded by its own monitor
+    private final TrendingRanking ranking;
+    
+    private final Map<String, List<PostResponse>> lists = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a list built from an older ranking is never cached
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean restored = false;
+    
+    public TrendingService(
+            TrendingScoreRepository trendingScoreRepository,
+            PostService postService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${blog.trending.half-life:PT24H}") Duration halfLife,
+            @Value("${blog.trending.size:20}") int size,
+            @Value("${blog.trending.publish-boost:5}") double publishBoost) {
+        this.trendingScoreRepository = trendingScoreRepository;
+        this.postService = postService;
+        this.transactionTemplate = transactionTemplate;
+        this.publishBoost = publishBoost;
+        this.ranking = new TrendingRanking(halfLife.toMillis(), size, System.currentTimeMillis());
+    
+        Gauge.builder("blog.trending.posts", ranking, r -> locked(r::getScoredPosts))
+                .description("Posts with a trending score")
+                .register(meterRegistry);
+        Gauge.builder("blog.trending.buckets", ranking, r -> locked(r::getBuckets))
+                .register(meterRegistry);
+    }
+    
+    // bucket: null for everything; with both a category and a tag, the tag's ranking within the category
+    public List<PostResponse> getTrending(String categorySlug, String tagSlug) {
+        String bucket = tagSlug != null ? TrendingRanking.tagBucket(tagSlug)
+                : categorySlug != null ? TrendingRanking.categoryBucket(categorySlug)
+                : TrendingRanking.ALL;
+        String filter = tagSlug != null && categorySlug != null ? TrendingRanking.categoryBucket(categorySlug) : null;
+        String key = filter == null ? bucket : bucket + "|" + filter;
+    
+        List<PostResponse> cached = lists.get(key);
+        if (cached != null) {
+            return cached;
+        }
+    
+        long seen = generation.get();
+        List<Long> ids;
+        synchronized (ranking) {
+            // Unknown slugs are not cached, so the lists stay bounded by the buckets that exist
+            if (!ranking.hasBucket(bucket) || (filter != null && !ranking.hasBucket(filter))) {
+                return List.of();
+            }
+            ids = ranking.top(bucket).stream()
+                    .filter(id -> filter == null || ranking.isIn(id, filter))
+                    .collect(Collectors.toList());
+        }
+        List<PostResponse> posts = List.copyOf(postService.getPostsByIds(ids));
+        if (generation.get() == seen) {
+            lists.put(key, posts);
+        }
+        return posts;
+    }
+    
+    // Views flushed by PostViewService, as deltas per post
+    public void addViews(Map<Long, Long> deltas) {
+        Set<Long> unknown;
+        synchronized (ranking) {
+            unknown = deltas.keySet().stream()
+                    .filter(id -> !ranking.isKnown(id))
+                    .collect(Collectors.toSet());
+        }
+        Map<Long, TrendingRanking.Membership> loaded = loadMemberships(unknown);
+    
+        long now = System.currentTimeMillis();
+        Set<String> changed = new HashSet<>();
+        synchronized (ranking) {
+            loaded.forEach((postId, membership) -> {
+                if (!ranking.isKnown(postId)) {
+                    changed.addAll(ranking.put(postId, membership));
+                }
+            });
+            deltas.forEach((postId, views) -> changed.addAll(ranking.add(postId, views, now)));
+        }
+        invalidate(changed);
+    }
+    
+    @TransactionalEventListener
+    public void onPostChanged(PostChangedEvent event) {
+        PostChangedEvent.PostState before = event.getBefore();
+        PostChangedEvent.PostState after = event.getAfter();
+        Set<String> changed = new HashSet<>();
+    
+        synchronized (ranking) {
+            if (after != null && after.isPublished()) {
+                changed.addAll(ranking.put(event.getPostId(),
+                        new TrendingRanking.Membership(after.getCategorySlug(), after.getTagSlugs())));
+                // Fresh publishes start with a few views' worth, so they can show up at all
+                if (before == null || !before.isPublished()) {
+                    changed.addAll(ranking.add(event.getPostId(), publishBoost, System.currentTimeMillis()));
+                }
+            } else {
+                changed.addAll(ranking.remove(event.getPostId()));
+            }
+        }
+    
+        // Titles and excerpts are in the lists too
+        if (event.isPublicChange()) {
+            invalidateAll();
+        } else {
+            invalidate(changed);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getPreviousSlug() != null && event.getSlug() != null
+                && !event.getPreviousSlug().equals(event.getSlug())) {
+            synchronized (ranking) {
+                ranking.renameCategory(event.getPreviousSlug(), event.getSlug());
+            }
+        }
+        invalidateAll();
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreOnStartup() {
+        List<TrendingScore> saved = trendingScoreRepository.findAll();
+        Map<Long, TrendingRanking.Membership> memberships = loadMemberships(
+                saved.stream().map(TrendingScore::getPostId).collect(Collectors.toList()));
+    
+        synchronized (ranking) {
+            for (TrendingScore score : saved) {
+                long savedAt = score.getSavedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                ranking.restore(score.getPostId(), score.getScore(), savedAt);
+            }
+            memberships.forEach(ranking::put);
+        }
+        restored = true;
+        invalidateAll();
+        log.info("Trending restored {} scores from the last snapshot", memberships.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${blog.trending.snapshot-interval:PT1M}",
+               initialDelayString = "${blog.trending.snapshot-interval:PT1M}")
+    public void saveSnapshot() {
+        // Saving before the restore would wipe the previous snapshot
+        if (!restored) {
+            return;
+        }
+    
+        Map<Long, Double> scores;
+        long now = System.currentTimeMillis();
+        synchronized (ranking) {
+            scores = ranking.decayedScores(now);
+        }
+        LocalDateTime savedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault());
+        transactionTemplate.executeWithoutResult(status -> trendingScoreRepository.replaceAll(scores, savedAt));
+    }
+    
+    // After PostViewService's final flush, which depends on this bean and so is destroyed first
+    @PreDestroy
+    public void shutdown() {
+        try {
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Saving the trending snapshot on shutdown failed: {}", e.getMessage());
+        }
+    }
+    
+    // Category and tags of the published posts among ids
+    private Map<Long, TrendingRanking.Membership> loadMemberships(Collection<Long> ids) {
+        return postService.getPublishedStates(ids).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new TrendingRanking.Membership(
+                        entry.getValue().getCategorySlug(), entry.getValue().getTagSlugs())));
+    }
+    
+    private void invalidate(Set<String> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        // Filtered lists are keyed "bucket|filter"
+        lists.keySet().removeIf(key -> buckets.contains(key.split("\\|", 2)[0])
+                || buckets.contains(key.substring(key.indexOf('|') + 1)));
+    }
+    
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        lists.clear();
+    }
+    
+    private int locked(IntSupplier supplier) {
+        synchronized (ranking) {
+            return supplier.getAsInt();
+        }
+    }
+}
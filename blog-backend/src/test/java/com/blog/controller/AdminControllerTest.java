@@ -0,0 +1,42 @@
+package com.blog.controller;
+
+import com.blog.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdminControllerTest extends ControllerTestSupport {
+    
+    @Test
+    @QueryBudget(statements = 0)
+    void stats() throws Exception {
+        mockMvc.perform(get("/api/admin/stats").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPosts").value(PUBLISHED + DRAFTS));
+    }
+    
+    @Test
+    @QueryBudget(statements = 1)
+    void users() throws Exception {
+        mockMvc.perform(get("/api/admin/users").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void posts() throws Exception {
+        mockMvc.perform(get("/api/admin/posts").header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(PUBLISHED + DRAFTS));
+    }
+    
+    @Test
+    @QueryBudget(statements = 0)
+    void cacheStats() throws Exception {
+        mockMvc.perform(get("/api/admin/cache/stats").header("Authorization", adminToken))
+                .andExpect(status().isOk());
+    }
+}
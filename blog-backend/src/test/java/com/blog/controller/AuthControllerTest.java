@@ -0,0 +1,41 @@
+package com.blog.controller;
+
+import com.blog.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Login and register finish on the password hashing pool; their statements still count
+class AuthControllerTest extends ControllerTestSupport {
+    
+    @Test
+    @QueryBudget(statements = 2)
+    void login() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emailOrUsername\":\"" + AUTHOR_EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void register() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"newreader\",\"email\":\"newreader@test.com\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated());
+    }
+}
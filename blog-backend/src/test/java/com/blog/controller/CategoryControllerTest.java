@@ -0,0 +1,44 @@
+package com.blog.controller;
+
+import com.blog.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CategoryControllerTest extends ControllerTestSupport {
+    
+    @Test
+    @QueryBudget(statements = 1)
+    void categories() throws Exception {
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void feed() throws Exception {
+        mockMvc.perform(get("/api/categories/technology/posts").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(PUBLISHED - 10));
+    }
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void feedByCursor() throws Exception {
+        mockMvc.perform(get("/api/categories/technology/posts").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+    
+    // Unknown slugs are answered from the slug index
+    @Test
+    @QueryBudget(statements = 0)
+    void unknownCategoryFeed() throws Exception {
+        mockMvc.perform(get("/api/categories/no-such-category/posts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+    }
+}
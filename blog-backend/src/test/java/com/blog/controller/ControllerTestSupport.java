@@ -0,0 +1,132 @@
+package com.blog.controller;
+
+import com.blog.cache.SlugIndexes;
+import com.blog.dto.request.PostRequest;
+import com.blog.entity.Category;
+import com.blog.entity.PostStatus;
+import com.blog.entity.Role;
+import com.blog.entity.User;
+import com.blog.related.RelatedPostService;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.UserRepository;
+import com.blog.search.PostSearchService;
+import com.blog.security.JwtService;
+import com.blog.security.TokenVersions;
+import com.blog.service.PostService;
+import com.blog.service.PostViewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+// The whole application on its own H2 database, seeded once per context through the services
+// so every index and cache sees the data the way it sees real writes. Subclasses call the API
+// through MockMvc under @QueryBudget; budgets hold for the uncached path.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+abstract class ControllerTestSupport {
+    
+    static final String PASSWORD = "Password123";
+    static final String AUTHOR_EMAIL = "author@test.com";
+    static final String ADMIN_EMAIL = "admin@test.com";
+    static final int PUBLISHED = 15;
+    static final int DRAFTS = 2;
+    static final List<String> TAGS = List.of("Java", "Spring", "Testing");
+    
+    @Autowired
+    protected MockMvc mockMvc;
+    
+    // Issued and seen once before the test method, so neither the user lookup nor the first
+    // token version check is counted against it
+    protected String authorToken;
+    protected String adminToken;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private JwtService jwtService;
+    
+    @Autowired
+    private TokenVersions tokenVersions;
+    
+    @Autowired
+    private PostService postService;
+    
+    @Autowired
+    private PostViewService postViewService;
+    
+    @Autowired
+    private SlugIndexes slugIndexes;
+    
+    @Autowired
+    private RelatedPostService relatedPostService;
+    
+    @Autowired
+    private PostSearchService postSearchService;
+    
+    @BeforeEach
+    void seed() {
+        synchronized (ControllerTestSupport.class) {
+            if (!userRepository.existsByEmail(AUTHOR_EMAIL)) {
+                seedOnce();
+            }
+        }
+        authorToken = bearer(AUTHOR_EMAIL);
+        adminToken = bearer(ADMIN_EMAIL);
+    }
+    
+    private void seedOnce() {
+        user("author", AUTHOR_EMAIL, Role.AUTHOR);
+        user("admin", ADMIN_EMAIL, Role.ADMIN);
+        Category technology = categoryRepository.save(Category.builder().name("Technology").slug("technology").build());
+        categoryRepository.save(Category.builder().name("Lifestyle").slug("lifestyle").build());
+    
+        for (int i = 0; i < PUBLISHED + DRAFTS; i++) {
+            PostRequest request = new PostRequest();
+            request.setTitle("Post number " + i);
+            request.setSlug("post-" + i);
+            request.setContent("## Post " + i + "\n\nA post about Java and Spring, long enough to pass validation.");
+            request.setCategoryId(technology.getId());
+            request.setTags(i % 2 == 0 ? TAGS : TAGS.subList(0, 2));
+            request.setStatus(i < PUBLISHED ? PostStatus.PUBLISHED : PostStatus.DRAFT);
+            Long id = postService.createPost(request, AUTHOR_EMAIL).getId();
+            for (int view = 0; view < i % 5; view++) {
+                postViewService.record(id);
+            }
+        }
+    
+        // What the scheduled jobs and startup tasks would otherwise do some time later
+        postViewService.flush();
+        slugIndexes.reload();
+        relatedPostService.rebuild();
+        postSearchService.rebuild();
+    }
+    
+    private String bearer(String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        tokenVersions.isCurrent(user.getId(), user.getTokenVersion());
+        return "Bearer " + jwtService.generateToken(user);
+    }
+    
+    private void user(String username, String email, Role role) {
+        userRepository.save(User.builder()
+                .username(username)
+                .email(email)
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(role)
+                .build());
+    }
+}
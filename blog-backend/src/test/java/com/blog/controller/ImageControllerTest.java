@@ -0,0 +1,33 @@
+package com.blog.controller;
+
+import com.blog.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ImageControllerTest extends ControllerTestSupport {
+    
+    @Test
+    @QueryBudget(statements = 4)
+    void upload() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "pixel.png", "image/png", png(3, 2));
+    
+        mockMvc.perform(multipart("/api/images").file(file).header("Authorization", authorToken))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.width").value(3));
+    }
+    
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", bytes);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,77 @@
+package com.blog.controller;
+
+import com.blog.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statements per endpoint: feeds read a page of ids, then hydrate it from two projection
+// queries whatever the page size, so an N+1 regression goes over these budgets
+class PostControllerTest extends ControllerTestSupport {
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void feed() throws Exception {
+        mockMvc.perform(get("/api/posts").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(PUBLISHED - 10));
+    }
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void feedByCursor() throws Exception {
+        mockMvc.perform(get("/api/posts").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+    
+    @Test
+    @QueryBudget(statements = 2)
+    void detail() throws Exception {
+        mockMvc.perform(get("/api/posts/post-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags.length()").value(2));
+    }
+    
+    @Test
+    @QueryBudget(statements = 2)
+    void search() throws Exception {
+        mockMvc.perform(get("/api/posts/search").param("q", "spring"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(PUBLISHED));
+    }
+    
+    @Test
+    @QueryBudget(statements = 0)
+    void popular() throws Exception {
+        mockMvc.perform(get("/api/posts/popular"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10));
+    }
+    
+    @Test
+    @QueryBudget(statements = 2)
+    void trending() throws Exception {
+        mockMvc.perform(get("/api/posts/trending").param("tag", "testing"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(8));
+    }
+    
+    @Test
+    @QueryBudget(statements = 2)
+    void related() throws Exception {
+        mockMvc.perform(get("/api/posts/post-4/related"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+    }
+    
+    @Test
+    @QueryBudget(statements = 5)
+    void myPosts() throws Exception {
+        mockMvc.perform(get("/api/posts/my").header("Authorization", authorToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(PUBLISHED + DRAFTS));
+    }
+}
@@ -0,0 +1,28 @@
+package com.blog.controller;
+
+import com.blog.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SyndicationControllerTest extends ControllerTestSupport {
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void feed() throws Exception {
+        mockMvc.perform(get("/feed.xml")).andExpect(status().isOk());
+    }
+    
+    @Test
+    @QueryBudget(statements = 4)
+    void tagFeed() throws Exception {
+        mockMvc.perform(get("/tags/testing/atom.xml")).andExpect(status().isOk());
+    }
+    
+    @Test
+    @QueryBudget(statements = 4)
+    void sitemap() throws Exception {
+        mockMvc.perform(get("/sitemap.xml")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,44 @@
+package com.blog.controller;
+
+import com.blog.metrics.QueryBudget;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TagControllerTest extends ControllerTestSupport {
+    
+    @Test
+    @QueryBudget(statements = 1)
+    void tags() throws Exception {
+        mockMvc.perform(get("/api/tags"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TAGS.size()));
+    }
+    
+    // A page kept as a feed snapshot first checks that the tag exists
+    @Test
+    @QueryBudget(statements = 4)
+    void feed() throws Exception {
+        mockMvc.perform(get("/api/tags/java/posts").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(PUBLISHED - 10));
+    }
+    
+    @Test
+    @QueryBudget(statements = 3)
+    void feedByCursor() throws Exception {
+        mockMvc.perform(get("/api/tags/spring/posts").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+    
+    @Test
+    @QueryBudget(statements = 2)
+    void unknownTagFeed() throws Exception {
+        mockMvc.perform(get("/api/tags/no-such-tag/posts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+    }
+}
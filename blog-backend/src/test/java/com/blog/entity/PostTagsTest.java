@@ -0,0 +1,95 @@
+package com.blog.entity;
+
+import com.blog.metrics.HibernateMetricsConfig;
+import com.blog.metrics.QueryBudget;
+import com.blog.metrics.QueryCountingDataSourcePostProcessor;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Post owns post_tags: changing a post's tags must not initialize Tag.posts, which would load
+// every post carrying the tag
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({QueryCountingDataSourcePostProcessor.class, HibernateMetricsConfig.class})
+class PostTagsTest {
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Long postId;
+    private Long javaId;
+    private Long springId;
+    private Long kotlinId;
+    
+    @BeforeEach
+    void seed() {
+        User author = entityManager.persist(User.builder()
+                .username("tagsauthor")
+                .email("tagsauthor@example.com")
+                .password("secret")
+                .build());
+        Category category = entityManager.persist(Category.builder()
+                .name("Tags Category")
+                .slug("tags-category")
+                .build());
+        Tag java = entityManager.persist(Tag.builder().name("Java").slug("java").build());
+        Tag spring = entityManager.persist(Tag.builder().name("Spring").slug("spring").build());
+        Tag kotlin = entityManager.persist(Tag.builder().name("Kotlin").slug("kotlin").build());
+    
+        // Other posts on the same tags, which an initialized Tag.posts would load
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(post("other-" + i, author, category, Set.of(java, spring, kotlin)));
+        }
+        postId = entityManager.persist(post("edited", author, category, Set.of(java, spring))).getId();
+        javaId = java.getId();
+        springId = spring.getId();
+        kotlinId = kotlin.getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    // Load the post, its tags and the new tags, then one delete and one insert in post_tags
+    @Test
+    @QueryBudget(statements = 5, collectionFetches = 1)
+    void replaceTagsChangesOnlyTheJoinRows() {
+        Post post = entityManager.find(Post.class, postId);
+        List<Tag> tags = entityManager.getEntityManager()
+                .createQuery("SELECT t FROM Tag t WHERE t.id IN :ids", Tag.class)
+                .setParameter("ids", List.of(springId, kotlinId))
+                .getResultList();
+    
+        post.replaceTags(Set.copyOf(tags));
+        entityManager.flush();
+    
+        assertThat(post.getTags()).extracting(Tag::getId).containsExactlyInAnyOrder(springId, kotlinId);
+        assertThat(post.getTags()).allSatisfy(tag -> assertThat(Hibernate.isInitialized(tag.getPosts())).isFalse());
+        Tag java = entityManager.find(Tag.class, javaId);
+        assertThat(Hibernate.isInitialized(java.getPosts())).isFalse();
+    }
+    
+    private static Post post(String slug, User author, Category category, Set<Tag> tags) {
+        return Post.builder()
+                .title(slug)
+                .slug(slug)
+                .content("Content of " + slug)
+                .status(PostStatus.PUBLISHED)
+                .author(author)
+                .category(category)
+                .tags(new HashSet<>(tags))
+                .build();
+    }
+}
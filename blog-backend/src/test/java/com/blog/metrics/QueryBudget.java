@@ -0,0 +1,25 @@
+package com.blog.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most database work a test may do, counted over the test method only (not @BeforeEach) by the
+// same hooks as RequestQueryStats. The context under test needs QueryCountingDataSourcePostProcessor
+// and HibernateMetricsConfig. On a method it replaces the class budget.
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    
+    int statements() default Integer.MAX_VALUE;
+    
+    long rows() default Long.MAX_VALUE;
+    
+    int entityLoads() default Integer.MAX_VALUE;
+    
+    int collectionFetches() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,47 @@
+package com.blog.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Binds fresh RequestQueryStats around each test method, as RequestQueryStatsFilter does around
+// a request, and fails the test when a count goes over its @QueryBudget
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+    
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        RequestQueryStats stats = new RequestQueryStats();
+        context.getStore(NAMESPACE).put(RequestQueryStats.class, stats);
+        RequestQueryStats.bind(stats);
+    }
+    
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        RequestQueryStats.unbind();
+        RequestQueryStats stats = context.getStore(NAMESPACE).remove(RequestQueryStats.class, RequestQueryStats.class);
+        QueryBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class))
+                .orElseThrow();
+    
+        List<String> over = new ArrayList<>();
+        check(over, "statements", stats.getStatements(), budget.statements());
+        check(over, "rows", stats.getRows(), budget.rows());
+        check(over, "entity loads", stats.getEntityLoads(), budget.entityLoads());
+        check(over, "collection fetches", stats.getCollectionFetches(), budget.collectionFetches());
+        if (!over.isEmpty()) {
+            throw new AssertionError(context.getDisplayName() + " is over its query budget: " + String.join(", ", over));
+        }
+    }
+    
+    private static void check(List<String> over, String name, long actual, long budget) {
+        if (actual > budget) {
+            over.add(name + " " + actual + " > " + budget);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.blog.repository;
+
+import com.blog.entity.Category;
+import com.blog.entity.Post;
+import com.blog.entity.PostStatus;
+import com.blog.entity.Tag;
+import com.blog.entity.User;
+import com.blog.metrics.HibernateMetricsConfig;
+import com.blog.metrics.QueryBudget;
+import com.blog.metrics.QueryCountingDataSourcePostProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every feed query must read one page of ids in SQL. A query that paginates in memory (a
+// JOIN FETCH under a Pageable, or a missing LIMIT) reads all matching rows and goes over the
+// rows budget, or fails outright through fail_on_pagination_over_collection_fetch.
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({QueryCountingDataSourcePostProcessor.class, HibernateMetricsConfig.class})
+class PostRepositoryFeedTest {
+    
+    private static final int PUBLISHED = 12;
+    private static final int DRAFTS = 3;
+    private static final int PAGE = 5;
+    
+    // Seeks past a point after every post, so a keyset query returns a full page
+    private static final LocalDateTime LATER = LocalDateTime.now().plusDays(1);
+    
+    private final Pageable page = PageRequest.of(0, PAGE);
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private User author;
+    private Category category;
+    private List<Long> publishedIds;
+    
+    @BeforeEach
+    void seed() {
+        author = entityManager.persist(User.builder()
+                .username("feedauthor")
+                .email("feedauthor@example.com")
+                .password("secret")
+                .build());
+        category = entityManager.persist(Category.builder()
+                .name("Feed Category")
+                .slug("feed-category")
+                .build());
+        Tag java = entityManager.persist(Tag.builder().name("Java").slug("java").build());
+        Tag spring = entityManager.persist(Tag.builder().name("Spring").slug("spring").build());
+    
+        for (int i = 0; i < PUBLISHED + DRAFTS; i++) {
+            entityManager.persist(Post.builder()
+                    .title("Java post " + i)
+                    .slug("java-post-" + i)
+                    .content("Content of post " + i)
+                    .status(i < PUBLISHED ? PostStatus.PUBLISHED : PostStatus.DRAFT)
+                    .author(author)
+                    .category(category)
+                    .tags(Set.of(java, spring))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        publishedIds = postRepository.findAllIdsByStatus(PostStatus.PUBLISHED);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = PAGE + 1, entityLoads = 0)
+    void findIdsByStatus() {
+        Page<Long> ids = postRepository.findIdsByStatus(PostStatus.PUBLISHED, page);
+    
+        assertThat(ids.getContent()).hasSize(PAGE);
+        assertThat(ids.getTotalElements()).isEqualTo(PUBLISHED);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = PAGE, entityLoads = 0)
+    void findIdPage() {
+        assertThat(postRepository.findIdPage(page)).hasSize(PAGE);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = PAGE, entityLoads = 0)
+    void findIdPageByStatus() {
+        assertThat(postRepository.findIdPageByStatus(PostStatus.DRAFT, page)).hasSize(DRAFTS);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = PAGE + 1, entityLoads = 0)
+    void findIdsByAuthorId() {
+        Page<Long> ids = postRepository.findIdsByAuthorId(author.getId(), page);
+    
+        assertThat(ids.getContent()).hasSize(PAGE);
+        assertThat(ids.getTotalElements()).isEqualTo(PUBLISHED + DRAFTS);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = PAGE + 1, entityLoads = 0)
+    void findIdsByAuthorIdAndStatus() {
+        Page<Long> ids = postRepository.findIdsByAuthorIdAndStatus(author.getId(), PostStatus.PUBLISHED, page);
+    
+        assertThat(ids.getContent()).hasSize(PAGE);
+        assertThat(ids.getTotalElements()).isEqualTo(PUBLISHED);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = PAGE + 1, entityLoads = 0)
+    void findIdsByCategoryIdAndStatus() {
+        Page<Long> ids = postRepository.findIdsByCategoryIdAndStatus(category.getId(), PostStatus.PUBLISHED, page);
+    
+        assertThat(ids.getContent()).hasSize(PAGE);
+        assertThat(ids.getTotalElements()).isEqualTo(PUBLISHED);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = PAGE + 1, entityLoads = 0)
+    void findIdsByTagSlugAndStatus() {
+        Page<Long> ids = postRepository.findIdsByTagSlugAndStatus("java", PostStatus.PUBLISHED, page);
+    
+        assertThat(ids.getContent()).hasSize(PAGE).doesNotHaveDuplicates();
+        assertThat(ids.getTotalElements()).isEqualTo(PUBLISHED);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = PAGE + 1, entityLoads = 0)
+    void searchIdsByKeyword() {
+        Page<Long> ids = postRepository.searchIdsByKeyword("java", PostStatus.PUBLISHED, page);
+    
+        assertThat(ids.getContent()).hasSize(PAGE);
+        assertThat(ids.getTotalElements()).isEqualTo(PUBLISHED);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = 2 * PAGE, entityLoads = 0)
+    void findFirstIdsByStatusAndAfter() {
+        assertThat(postRepository.findFirstIdsByStatus(PostStatus.PUBLISHED, page)).hasSize(PAGE);
+        assertThat(postRepository.findIdsByStatusAfter(PostStatus.PUBLISHED, LATER, Long.MAX_VALUE, page)).hasSize(PAGE);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = 2 * PAGE, entityLoads = 0)
+    void findFirstIdsByCategoryIdAndStatusAndAfter() {
+        assertThat(postRepository.findFirstIdsByCategoryIdAndStatus(category.getId(), PostStatus.PUBLISHED, page))
+                .hasSize(PAGE);
+        assertThat(postRepository.findIdsByCategoryIdAndStatusAfter(
+                category.getId(), PostStatus.PUBLISHED, LATER, Long.MAX_VALUE, page)).hasSize(PAGE);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = 2 * PAGE, entityLoads = 0)
+    void findFirstIdsByTagSlugAndStatusAndAfter() {
+        assertThat(postRepository.findFirstIdsByTagSlugAndStatus("java", PostStatus.PUBLISHED, page))
+                .hasSize(PAGE);
+        assertThat(postRepository.findIdsByTagSlugAndStatusAfter(
+                "java", PostStatus.PUBLISHED, LATER, Long.MAX_VALUE, page)).hasSize(PAGE);
+    }
+    
+    // A page is hydrated from projections: one query for the rows, one for their tags
+    @Test
+    @QueryBudget(statements = 2, rows = 3 * PAGE, entityLoads = 0, collectionFetches = 0)
+    void hydratePage() {
+        List<Long> ids = publishedIds.subList(0, PAGE);
+    
+        assertThat(postRepository.findSummariesByIdIn(ids)).hasSize(PAGE);
+        assertThat(postRepository.findTagSummariesByPostIdIn(ids)).hasSize(2 * PAGE);
+    }
+}
@@ -0,0 +1,73 @@
+package com.blog.repository;
+
+import com.blog.entity.Category;
+import com.blog.entity.Post;
+import com.blog.entity.PostView;
+import com.blog.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostViewRepositoryTest {
+    
+    @Autowired
+    private PostViewRepository postViewRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    private Long postId;
+    
+    @BeforeEach
+    void seed() {
+        User author = entityManager.persist(User.builder()
+                .username("viewsauthor")
+                .email("viewsauthor@example.com")
+                .password("secret")
+                .build());
+        Category category = entityManager.persist(Category.builder()
+                .name("Views Category")
+                .slug("views-category")
+                .build());
+        postId = entityManager.persist(Post.builder()
+                .title("Viewed")
+                .slug("viewed")
+                .content("Content")
+                .author(author)
+                .category(category)
+                .build()).getId();
+        entityManager.flush();
+    }
+    
+    @Test
+    void addViewsAccumulates() {
+        assertThat(postViewRepository.addViews(Map.of(postId, 3L))).isEmpty();
+        assertThat(postViewRepository.addViews(Map.of(postId, 4L))).isEmpty();
+    
+        entityManager.clear();
+        assertThat(entityManager.find(PostView.class, postId).getViews()).isEqualTo(7);
+    }
+    
+    // A view recorded after its post was deleted must not leave an orphan row
+    @Test
+    void addViewsSkipsDeletedPosts() {
+        long deletedId = postId + 1000;
+    
+        assertThat(postViewRepository.addViews(Map.of(postId, 1L, deletedId, 2L))).containsExactly(deletedId);
+    
+        entityManager.clear();
+        assertThat(entityManager.find(PostView.class, deletedId)).isNull();
+        assertThat(entityManager.find(PostView.class, postId).getViews()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,42 @@
+package com.blog.security;
+
+import com.blog.metrics.QueryBudget;
+import com.blog.metrics.RequestQueryStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QueryBudget
+class PasswordHashingExecutorTest {
+    
+    // One thread, so every task runs where the previous one did
+    private final PasswordHashingExecutor passwordHashing = new PasswordHashingExecutor(1, 4);
+    
+    @AfterEach
+    void shutdown() {
+        passwordHashing.shutdown();
+    }
+    
+    @Test
+    void taskCountsAgainstTheSubmittingRequest() {
+        RequestQueryStats stats = RequestQueryStats.current();
+    
+        assertThat(stats).isNotNull();
+        assertThat(passwordHashing.submit(RequestQueryStats::current).join()).isSameAs(stats);
+    }
+    
+    @Test
+    void poolThreadIsUnboundAfterTheTask() {
+        passwordHashing.submit(RequestQueryStats::current).join();
+    
+        // Submitted from a thread outside any request
+        RequestQueryStats leftover = CompletableFuture
+                .supplyAsync(() -> passwordHashing.submit(RequestQueryStats::current).join())
+                .join();
+    
+        assertThat(leftover).isNull();
+    }
+}
@@ -0,0 +1,89 @@
+package com.blog.service;
+
+import com.blog.dto.request.PostRequest;
+import com.blog.dto.response.PostResponse;
+import com.blog.entity.Category;
+import com.blog.entity.PostStatus;
+import com.blog.entity.User;
+import com.blog.metrics.QueryBudget;
+import com.blog.repository.CategoryRepository;
+import com.blog.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Writing a post loads its author, category and tags, never the other posts on those tags:
+// initializing Tag.posts, or loading every tag to match names, goes over the entity budget
+@SpringBootTest
+@ActiveProfiles("test")
+class PostServiceEntityLoadsTest {
+    
+    private static final String AUTHOR_EMAIL = "writer@test.com";
+    private static final int OTHER_POSTS = 20;
+    
+    @Autowired
+    private PostService postService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    private Long categoryId;
+    private Long editedId;
+    
+    @BeforeEach
+    void seed() {
+        if (!userRepository.existsByEmail(AUTHOR_EMAIL)) {
+            userRepository.save(User.builder()
+                    .username("writer")
+                    .email(AUTHOR_EMAIL)
+                    .password("secret")
+                    .build());
+            categoryId = categoryRepository.save(Category.builder().name("Writing").slug("writing").build()).getId();
+            // Tags shared by many posts, plus unrelated ones
+            for (int i = 0; i < OTHER_POSTS; i++) {
+                postService.createPost(request("Other post " + i, List.of("Java", "Spring", "Unrelated " + i)), AUTHOR_EMAIL);
+            }
+        }
+        categoryId = categoryRepository.findBySlug("writing").orElseThrow().getId();
+        editedId = postService.createPost(request("Edited post", List.of("Java", "Spring")), AUTHOR_EMAIL).getId();
+    }
+    
+    // The author, the category and the three tags
+    @Test
+    @QueryBudget(entityLoads = 5, collectionFetches = 0)
+    void createPost() {
+        PostResponse post = postService.createPost(request("New post", List.of("Java", "Spring", "Kotlin")), AUTHOR_EMAIL);
+    
+        assertThat(post.getTags()).hasSize(3);
+    }
+    
+    // The post, its author, category, rendering and latest revision, its two tags (the one
+    // collection fetched) and the tag it gains
+    @Test
+    @QueryBudget(entityLoads = 8, collectionFetches = 1)
+    void updatePost() {
+        PostResponse post = postService.updatePost(editedId,
+                request("Edited post", List.of("Spring", "Kotlin")), AUTHOR_EMAIL, false);
+    
+        assertThat(post.getTags()).hasSize(2);
+    }
+    
+    private PostRequest request(String title, List<String> tags) {
+        PostRequest request = new PostRequest();
+        request.setTitle(title);
+        request.setContent("## " + title + "\n\nA post about Java and Spring, long enough to pass validation.");
+        request.setCategoryId(categoryId);
+        request.setTags(tags);
+        request.setStatus(PostStatus.PUBLISHED);
+        return request;
+    }
+}
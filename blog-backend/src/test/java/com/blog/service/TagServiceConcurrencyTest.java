@@ -0,0 +1,95 @@
+package com.blog.service;
+
+import com.blog.entity.Tag;
+import com.blog.repository.TagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Requests creating the same new tags at once must all get the same rows: no duplicates,
+// no constraint violations. Each call commits on its own, so the test runs outside a transaction.
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TagService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TagServiceConcurrencyTest {
+    
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 5;
+    
+    @Autowired
+    private TagService tagService;
+    
+    @Autowired
+    private TagRepository tagRepository;
+    
+    @MockBean
+    private CounterService counterService;
+    
+    @AfterEach
+    void cleanUp() {
+        tagRepository.deleteAll();
+    }
+    
+    @Test
+    void concurrentCreatesOfTheSameTagsShareOneRowEach() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<String> names = List.of("Concurrency " + round, "Locks " + round,
+                        "Race Conditions " + round, "Threads " + round);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Set<Tag>>> results = new ArrayList<>();
+    
+                for (int i = 0; i < THREADS; i++) {
+                    // Every thread asks in its own order, so the batches overlap differently
+                    List<String> order = new ArrayList<>(names);
+                    Collections.rotate(order, i);
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return tagService.getOrCreateTags(order);
+                    }));
+                }
+                start.countDown();
+    
+                Set<Long> firstIds = null;
+                for (Future<Set<Tag>> result : results) {
+                    Set<Tag> tags = result.get(30, TimeUnit.SECONDS); // rethrows what the thread threw
+                    Set<Long> ids = tags.stream().map(Tag::getId).collect(Collectors.toSet());
+                    assertThat(tags).extracting(Tag::getName).containsExactlyInAnyOrderElementsOf(names);
+                    if (firstIds == null) {
+                        firstIds = ids;
+                    }
+                    assertThat(ids).isEqualTo(firstIds);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    
+        List<Tag> stored = tagRepository.findAll();
+        assertThat(stored).hasSize(ROUNDS * 4);
+        assertThat(stored).extracting(Tag::getSlug).doesNotHaveDuplicates();
+    }
+}
@@ -102,6 +102,22 @@ export default function AdminDashboardPage() {
             </Link>
           </CardContent>
         </Card>
+
+        {stats?.postsByStatus && (
+          <Card>
+            <CardHeader>
+              <CardTitle>Posts by Status</CardTitle>
+            </CardHeader>
+            <CardContent className="space-y-2">
+              {Object.entries(stats.postsByStatus).map(([status, count]) => (
+                <div key={status} className="flex items-center justify-between p-3">
+                  <span className="font-medium text-gray-900">{status}</span>
+                  <span className="text-gray-500">{count}</span>
+                </div>
+              ))}
+            </CardContent>
+          </Card>
+        )}
       </div>
     </div>
   );
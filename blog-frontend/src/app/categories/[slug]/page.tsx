@@ -5,14 +5,18 @@ import Link from 'next/link';
 import { ArrowLeft } from 'lucide-react';
 import { PostCard } from '@/components/post/post-card';
 import { Pagination } from '@/components/post/pagination';
-import { categoriesApi } from '@/lib/api';
+import { PostRail } from '@/components/post/post-rail';
+import { categoriesApi, postsApi } from '@/lib/api';
 import type { Post } from '@/types';
 
+const TRENDING_SHOWN = 5;
+
 export default function CategoryPostsPage({ params }: { params: { slug: string } }) {
   const [posts, setPosts] = useState<Post[]>([]);
   const [page, setPage] = useState(0);
   const [totalPages, setTotalPages] = useState(0);
   const [loading, setLoading] = useState(true);
+  const [trending, setTrending] = useState<Post[]>([]);
 
   useEffect(() => {
     const fetchPosts = async () => {
@@ -30,6 +34,13 @@ export default function CategoryPostsPage({ params }: { params: { slug: string }
     fetchPosts();
   }, [params.slug, page]);
 
+  useEffect(() => {
+    // Optional section, the page renders without it
+    postsApi.getTrending({ category: params.slug })
+      .then((data) => setTrending(data.slice(0, TRENDING_SHOWN)))
+      .catch(() => setTrending([]));
+  }, [params.slug]);
+
   return (
     <div className="container mx-auto px-4 py-8">
       <Link href="/categories" className="inline-flex items-center text-sm text-gray-500 hover:text-gray-900 mb-6">
@@ -41,6 +52,12 @@ export default function CategoryPostsPage({ params }: { params: { slug: string }
         {params.slug.replace(/-/g, ' ')}
       </h1>
 
+      {trending.length > 0 && (
+        <div className="mb-8 max-w-xl">
+          <PostRail title="Trending" posts={trending} />
+        </div>
+      )}
+
       {loading ? (
         <div className="grid gap-6 md:grid-cols-2 lg:grid-cols-3">
           {[...Array(6)].map((_, i) => (
@@ -8,9 +8,18 @@ import './globals.css';
 
 const inter = Inter({ subsets: ['latin'] });
 
+const FEED_ORIGIN = (process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api').replace(/\/api\/?$/, '');
+
 export const metadata: Metadata = {
   title: 'DevBlog - A Minimal Blog for Developers',
   description: 'Share your knowledge, read interesting articles about development',
+  alternates: {
+    types: {
+      // Feeds are served by the backend outside /api
+      'application/rss+xml': `${FEED_ORIGIN}/feed.xml`,
+      'application/atom+xml': `${FEED_ORIGIN}/atom.xml`,
+    },
+  },
 };
 
 export default function RootLayout({
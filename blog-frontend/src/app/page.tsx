@@ -6,9 +6,12 @@ import { Input } from '@/components/ui/input';
 import { Button } from '@/components/ui/button';
 import { PostCard } from '@/components/post/post-card';
 import { Pagination } from '@/components/post/pagination';
+import { PostRail } from '@/components/post/post-rail';
 import { postsApi } from '@/lib/api';
 import type { Post, PageResponse } from '@/types';
 
+const RAIL_SHOWN = 5;
+
 export default function HomePage() {
   const [posts, setPosts] = useState<Post[]>([]);
   const [page, setPage] = useState(0);
@@ -16,6 +19,8 @@ export default function HomePage() {
   const [loading, setLoading] = useState(true);
   const [searchQuery, setSearchQuery] = useState('');
   const [isSearching, setIsSearching] = useState(false);
+  const [trending, setTrending] = useState<Post[]>([]);
+  const [popular, setPopular] = useState<Post[]>([]);
 
   const fetchPosts = async (pageNum: number, query?: string) => {
     setLoading(true);
@@ -39,6 +44,16 @@ export default function HomePage() {
     fetchPosts(page, isSearching ? searchQuery : undefined);
   }, [page, isSearching]);
 
+  useEffect(() => {
+    // Optional sections, the page renders without them
+    postsApi.getTrending()
+      .then((data) => setTrending(data.slice(0, RAIL_SHOWN)))
+      .catch(() => setTrending([]));
+    postsApi.getPopular()
+      .then((data) => setPopular(data.slice(0, RAIL_SHOWN)))
+      .catch(() => setPopular([]));
+  }, []);
+
   const handleSearch = (e: React.FormEvent) => {
     e.preventDefault();
     if (searchQuery.trim()) {
@@ -96,6 +111,14 @@ export default function HomePage() {
         )}
       </section>
 
+      {/* Trending and Most Viewed */}
+      {!isSearching && (trending.length > 0 || popular.length > 0) && (
+        <div className="grid gap-6 md:grid-cols-2 mb-8">
+          <PostRail title="Trending" posts={trending} />
+          <PostRail title="Most Viewed" posts={popular} />
+        </div>
+      )}
+
       {/* Posts Grid */}
       <section>
         <h2 className="text-2xl font-semibold text-gray-900 mb-6">
@@ -14,6 +14,8 @@ import { Label } from '@/components/ui/label';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from '@/components/ui/select';
 import { Editor } from '@/components/post/editor';
+import { ImageUpload } from '@/components/post/image-upload';
+import { RevisionHistory } from '@/components/post/revision-history';
 import { postsApi, categoriesApi } from '@/lib/api';
 import { useAuth } from '@/contexts/AuthContext';
 import type { Category, PostStatus, Post } from '@/types';
@@ -86,6 +88,13 @@ export default function EditPostPage() {
     fetchData();
   }, [slug, user, userIsAdmin, authLoading, router, setValue]);
 
+  // The restore is already saved; the form picks up the restored title and content
+  const handleRestored = (restored: Post) => {
+    setPost(restored);
+    setValue('title', restored.title);
+    setValue('content', restored.content || '');
+  };
+
   const onSubmit = async (data: PostForm) => {
     if (!post) return;
     
@@ -210,11 +219,14 @@ export default function EditPostPage() {
             {/* Featured Image */}
             <div className="space-y-2">
               <Label htmlFor="featuredImage">Featured Image URL (optional)</Label>
-              <Input
-                id="featuredImage"
-                placeholder="https://example.com/image.jpg"
-                {...register('featuredImage')}
-              />
+              <div className="flex gap-2">
+                <Input
+                  id="featuredImage"
+                  placeholder="https://example.com/image.jpg"
+                  {...register('featuredImage')}
+                />
+                <ImageUpload onUploaded={(url) => setValue('featuredImage', url, { shouldValidate: true })} />
+              </div>
               {errors.featuredImage && (
                 <p className="text-sm text-red-500">{errors.featuredImage.message}</p>
               )}
@@ -259,6 +271,8 @@ export default function EditPostPage() {
           </CardContent>
         </form>
       </Card>
+
+      {post && <RevisionHistory postId={post.id} onRestored={handleRestored} />}
     </div>
   );
 }
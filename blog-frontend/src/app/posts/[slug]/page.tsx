@@ -16,6 +16,7 @@ import type { Post } from '@/types';
 export default function PostDetailPage({ params }: { params: { slug: string } }) {
   const router = useRouter();
   const [post, setPost] = useState<Post | null>(null);
+  const [related, setRelated] = useState<Post[]>([]);
   const [loading, setLoading] = useState(true);
   const [deleteDialogOpen, setDeleteDialogOpen] = useState(false);
   const [deleting, setDeleting] = useState(false);
@@ -40,6 +41,13 @@ export default function PostDetailPage({ params }: { params: { slug: string } })
     fetchPost();
   }, [params.slug, router]);
 
+  useEffect(() => {
+    // Optional section, the post renders without it
+    postsApi.getRelated(params.slug)
+      .then(setRelated)
+      .catch(() => setRelated([]));
+  }, [params.slug]);
+
   const handleDelete = async () => {
     if (!post) return;
     
@@ -135,17 +143,33 @@ export default function PostDetailPage({ params }: { params: { slug: string } })
       {post.featuredImage && (
         <div className="mb-8 rounded-lg overflow-hidden">
           <img
-            src={post.featuredImage}
+            src={post.featuredImageUrls?.large ?? post.featuredImage}
             alt={post.title}
             className="w-full h-auto"
           />
         </div>
       )}
 
+      {/* Table of Contents */}
+      {post.toc && post.toc.length > 1 && (
+        <nav className="mb-8 p-4 rounded-lg bg-gray-50 border border-gray-200">
+          <h2 className="text-sm font-medium text-gray-500 mb-2">Contents</h2>
+          <ul className="space-y-1 text-sm">
+            {post.toc.map((entry) => (
+              <li key={entry.anchor} style={{ paddingLeft: `${(entry.level - 1) * 0.75}rem` }}>
+                <a href={`#${entry.anchor}`} className="text-gray-700 hover:text-gray-900 hover:underline">
+                  {entry.text}
+                </a>
+              </li>
+            ))}
+          </ul>
+        </nav>
+      )}
+
       {/* Content */}
       <article 
         className="prose prose-gray max-w-none"
-        dangerouslySetInnerHTML={{ __html: post.content || '' }}
+        dangerouslySetInnerHTML={{ __html: post.html || '' }}
       />
 
       {/* Tags */}
@@ -164,6 +188,25 @@ export default function PostDetailPage({ params }: { params: { slug: string } })
         </div>
       )}
 
+      {/* Related Posts */}
+      {related.length > 0 && (
+        <section className="mt-8 pt-8 border-t border-gray-200">
+          <h3 className="text-sm font-medium text-gray-500 mb-3">Related posts</h3>
+          <ul className="space-y-3">
+            {related.map((item) => (
+              <li key={item.id}>
+                <Link href={`/posts/${item.slug}`} className="font-medium text-gray-900 hover:underline">
+                  {item.title}
+                </Link>
+                {item.excerpt && (
+                  <p className="text-sm text-gray-500 line-clamp-2">{item.excerpt}</p>
+                )}
+              </li>
+            ))}
+          </ul>
+        </section>
+      )}
+
       {/* Delete Dialog */}
       <Dialog open={deleteDialogOpen} onOpenChange={setDeleteDialogOpen}>
         <DialogContent>
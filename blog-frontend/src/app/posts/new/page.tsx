@@ -14,6 +14,7 @@ import { Label } from '@/components/ui/label';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from '@/components/ui/select';
 import { Editor } from '@/components/post/editor';
+import { ImageUpload } from '@/components/post/image-upload';
 import { postsApi, categoriesApi } from '@/lib/api';
 import { useAuth } from '@/contexts/AuthContext';
 import type { Category, PostStatus } from '@/types';
@@ -170,11 +171,14 @@ export default function NewPostPage() {
             {/* Featured Image */}
             <div className="space-y-2">
               <Label htmlFor="featuredImage">Featured Image URL (optional)</Label>
-              <Input
-                id="featuredImage"
-                placeholder="https://example.com/image.jpg"
-                {...register('featuredImage')}
-              />
+              <div className="flex gap-2">
+                <Input
+                  id="featuredImage"
+                  placeholder="https://example.com/image.jpg"
+                  {...register('featuredImage')}
+                />
+                <ImageUpload onUploaded={(url) => setValue('featuredImage', url, { shouldValidate: true })} />
+              </div>
               {errors.featuredImage && (
                 <p className="text-sm text-red-500">{errors.featuredImage.message}</p>
               )}
@@ -0,0 +1,50 @@
+'use client';
+
+import { useRef, useState } from 'react';
+import toast from 'react-hot-toast';
+import { Loader2, Upload } from 'lucide-react';
+import { Button } from '@/components/ui/button';
+import { imagesApi } from '@/lib/api';
+
+interface ImageUploadProps {
+  onUploaded: (url: string) => void;
+}
+
+export function ImageUpload({ onUploaded }: ImageUploadProps) {
+  const input = useRef<HTMLInputElement>(null);
+  const [uploading, setUploading] = useState(false);
+
+  const handleChange = async (event: React.ChangeEvent<HTMLInputElement>) => {
+    const file = event.target.files?.[0];
+    event.target.value = '';
+    if (!file) return;
+
+    setUploading(true);
+    try {
+      const image = await imagesApi.upload(file);
+      onUploaded(image.urls.original);
+      toast.success('Image uploaded');
+    } catch (error: any) {
+      const message = error.response?.data?.message || 'Failed to upload image';
+      toast.error(message);
+    } finally {
+      setUploading(false);
+    }
+  };
+
+  return (
+    <>
+      <input
+        ref={input}
+        type="file"
+        accept="image/jpeg,image/png,image/gif"
+        className="hidden"
+        onChange={handleChange}
+      />
+      <Button type="button" variant="outline" disabled={uploading} onClick={() => input.current?.click()}>
+        {uploading ? <Loader2 className="h-4 w-4 mr-2 animate-spin" /> : <Upload className="h-4 w-4 mr-2" />}
+        Upload
+      </Button>
+    </>
+  );
+}
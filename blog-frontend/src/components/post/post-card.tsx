@@ -11,7 +11,17 @@ interface PostCardProps {
 
 export function PostCard({ post }: PostCardProps) {
   return (
-    <Card className="group hover:shadow-md transition-shadow duration-200">
+    <Card className="group hover:shadow-md transition-shadow duration-200 overflow-hidden">
+      {post.featuredImageUrls && (
+        <Link href={`/posts/${post.slug}`}>
+          <img
+            src={post.featuredImageUrls.thumbnail}
+            alt={post.title}
+            loading="lazy"
+            className="w-full h-40 object-cover"
+          />
+        </Link>
+      )}
       <CardContent className="p-6">
         <div className="flex items-center gap-2 mb-3">
           <Link href={`/categories/${post.category.slug}`}>
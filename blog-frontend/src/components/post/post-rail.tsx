@@ -0,0 +1,34 @@
+import Link from 'next/link';
+import type { Post } from '@/types';
+
+interface PostRailProps {
+  title: string;
+  posts: Post[];
+}
+
+// Compact numbered list of posts, e.g. trending or most viewed; view counts show when present
+export function PostRail({ title, posts }: PostRailProps) {
+  if (posts.length === 0) return null;
+
+  return (
+    <section className="bg-white rounded-lg border border-gray-200 p-6">
+      <h2 className="text-lg font-semibold text-gray-900 mb-4">{title}</h2>
+      <ol className="space-y-3">
+        {posts.map((post, index) => (
+          <li key={post.id} className="flex gap-3">
+            <span className="text-sm font-semibold text-gray-400 w-5 shrink-0">{index + 1}</span>
+            <div className="min-w-0">
+              <Link href={`/posts/${post.slug}`} className="font-medium text-gray-900 hover:underline line-clamp-2">
+                {post.title}
+              </Link>
+              <p className="text-xs text-gray-500">
+                {post.category.name}
+                {post.views !== undefined && ` · ${post.views.toLocaleString()} views`}
+              </p>
+            </div>
+          </li>
+        ))}
+      </ol>
+    </section>
+  );
+}
@@ -0,0 +1,174 @@
+'use client';
+
+import { useState, useEffect } from 'react';
+import toast from 'react-hot-toast';
+import { Loader2 } from 'lucide-react';
+import { Button } from '@/components/ui/button';
+import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
+import {
+  Dialog,
+  DialogContent,
+  DialogDescription,
+  DialogFooter,
+  DialogHeader,
+  DialogTitle,
+} from '@/components/ui/dialog';
+import { postsApi } from '@/lib/api';
+import { cn } from '@/lib/utils';
+import type { Post, PostRevision } from '@/types';
+
+interface RevisionHistoryProps {
+  postId: number;
+  onRestored: (post: Post) => void;
+}
+
+function diffLineClass(line: string): string {
+  if (line.startsWith('@@')) return 'text-blue-600';
+  if (line.startsWith('+') && !line.startsWith('+++')) return 'bg-green-50 text-green-800';
+  if (line.startsWith('-') && !line.startsWith('---')) return 'bg-red-50 text-red-800';
+  return 'text-gray-600';
+}
+
+// Saved versions of a post, newest first: each can be compared with the one listed below it or restored
+export function RevisionHistory({ postId, onRestored }: RevisionHistoryProps) {
+  const [revisions, setRevisions] = useState<PostRevision[]>([]);
+  const [loading, setLoading] = useState(true);
+  const [diff, setDiff] = useState<{ from: number; to: number; text: string } | null>(null);
+  const [restoring, setRestoring] = useState<number | null>(null);
+  const [confirmRestore, setConfirmRestore] = useState<number | null>(null);
+
+  const fetchRevisions = async () => {
+    try {
+      setRevisions(await postsApi.getRevisions(postId));
+    } catch (error) {
+      console.error('Failed to fetch revisions:', error);
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  useEffect(() => {
+    fetchRevisions();
+  }, [postId]);
+
+  // Against the next older revision listed; compaction may have removed the ones in between
+  const showChanges = async (from: number, to: number) => {
+    try {
+      const text = await postsApi.diffRevisions(postId, from, to);
+      setDiff({ from, to, text });
+    } catch (error) {
+      toast.error('Failed to load changes');
+    }
+  };
+
+  const handleRestore = async () => {
+    if (confirmRestore === null) return;
+
+    setRestoring(confirmRestore);
+    try {
+      const restored = await postsApi.restoreRevision(postId, confirmRestore);
+      toast.success(`Revision ${confirmRestore} restored`);
+      onRestored(restored);
+      await fetchRevisions();
+    } catch (error: any) {
+      toast.error(error.response?.data?.message || 'Failed to restore revision');
+    } finally {
+      setRestoring(null);
+      setConfirmRestore(null);
+    }
+  };
+
+  return (
+    <Card className="mt-6">
+      <CardHeader>
+        <CardTitle>Revision History</CardTitle>
+      </CardHeader>
+      <CardContent>
+        {loading ? (
+          <div className="flex justify-center py-4">
+            <Loader2 className="h-6 w-6 animate-spin text-primary-500" />
+          </div>
+        ) : revisions.length === 0 ? (
+          <p className="text-sm text-gray-500">No revisions yet.</p>
+        ) : (
+          <ul className="divide-y divide-gray-200">
+            {revisions.map((revision, index) => (
+              <li key={revision.number} className="flex items-center justify-between gap-4 py-3">
+                <div className="min-w-0">
+                  <p className="font-medium text-gray-900 truncate">
+                    #{revision.number} {revision.title}
+                  </p>
+                  <p className="text-xs text-gray-500">
+                    {new Date(revision.createdAt).toLocaleString('vi-VN')}
+                    {revision.authorUsername && ` · ${revision.authorUsername}`}
+                    {` · ${revision.contentLength.toLocaleString()} characters`}
+                    {index === 0 && ' · current'}
+                  </p>
+                </div>
+                <div className="flex gap-2 shrink-0">
+                  {index < revisions.length - 1 && (
+                    <Button
+                      type="button"
+                      variant="outline"
+                      size="sm"
+                      onClick={() => showChanges(revisions[index + 1].number, revision.number)}
+                    >
+                      Changes
+                    </Button>
+                  )}
+                  {index > 0 && (
+                    <Button
+                      type="button"
+                      variant="secondary"
+                      size="sm"
+                      disabled={restoring !== null}
+                      onClick={() => setConfirmRestore(revision.number)}
+                    >
+                      Restore
+                    </Button>
+                  )}
+                </div>
+              </li>
+            ))}
+          </ul>
+        )}
+      </CardContent>
+
+      {/* Changes Dialog */}
+      <Dialog open={diff !== null} onOpenChange={(open) => !open && setDiff(null)}>
+        <DialogContent className="max-w-3xl">
+          <DialogHeader>
+            <DialogTitle>Changes from revision {diff?.from} to {diff?.to}</DialogTitle>
+          </DialogHeader>
+          <pre className="max-h-[60vh] overflow-auto rounded border border-gray-200 bg-gray-50 p-3 text-xs">
+            {diff?.text.split('\n').map((line, i) => (
+              <div key={i} className={cn('whitespace-pre-wrap', diffLineClass(line))}>
+                {line || ' '}
+              </div>
+            ))}
+          </pre>
+        </DialogContent>
+      </Dialog>
+
+      {/* Restore Dialog */}
+      <Dialog open={confirmRestore !== null} onOpenChange={(open) => !open && setConfirmRestore(null)}>
+        <DialogContent>
+          <DialogHeader>
+            <DialogTitle>Restore Revision</DialogTitle>
+            <DialogDescription>
+              The post gets the title and content of revision {confirmRestore}. The current version stays in the history.
+            </DialogDescription>
+          </DialogHeader>
+          <DialogFooter>
+            <Button variant="outline" onClick={() => setConfirmRestore(null)}>
+              Cancel
+            </Button>
+            <Button onClick={handleRestore} disabled={restoring !== null}>
+              {restoring !== null ? 'Restoring...' : 'Restore'}
+            </Button>
+          </DialogFooter>
+        </DialogContent>
+      </Dialog>
+    </Card>
+  );
+}
@@ -5,12 +5,14 @@ import type {
   RegisterRequest,
   Post,
   PostRequest,
+  PostRevision,
   Category,
   CategoryRequest,
   Tag,
   PageResponse,
   Stats,
   User,
+  UploadedImage,
   ApiError
 } from '@/types';
 
@@ -74,6 +76,21 @@ export const postsApi = {
     return response.data;
   },
   
+  getPopular: async (): Promise<Post[]> => {
+    const response = await api.get<Post[]>('/posts/popular');
+    return response.data;
+  },
+  
+  getTrending: async (params: { category?: string; tag?: string } = {}): Promise<Post[]> => {
+    const response = await api.get<Post[]>('/posts/trending', { params });
+    return response.data;
+  },
+  
+  getRelated: async (slug: string): Promise<Post[]> => {
+    const response = await api.get<Post[]>(`/posts/${slug}/related`);
+    return response.data;
+  },
+  
   getMy: async (page = 0, status?: string): Promise<PageResponse<Post>> => {
     let url = `/posts/my?page=${page}`;
     if (status) url += `&status=${status}`;
@@ -99,6 +116,25 @@ export const postsApi = {
   delete: async (id: number): Promise<void> => {
     await api.delete(`/posts/${id}`);
   },
+  
+  getRevisions: async (id: number): Promise<PostRevision[]> => {
+    const response = await api.get<PostRevision[]>(`/posts/${id}/revisions`);
+    return response.data;
+  },
+  
+  // Unified diff as plain text
+  diffRevisions: async (id: number, from: number, to: number): Promise<string> => {
+    const response = await api.get<string>(`/posts/${id}/revisions/diff`, {
+      params: { from, to },
+      responseType: 'text',
+    });
+    return response.data;
+  },
+  
+  restoreRevision: async (id: number, number: number): Promise<Post> => {
+    const response = await api.post<Post>(`/posts/${id}/revisions/${number}/restore`);
+    return response.data;
+  },
 };
 
 // Categories
@@ -141,6 +177,18 @@ export const tagsApi = {
   },
 };
 
+// Images
+export const imagesApi = {
+  upload: async (file: File): Promise<UploadedImage> => {
+    const form = new FormData();
+    form.append('file', file);
+    const response = await api.post<UploadedImage>('/images', form, {
+      headers: { 'Content-Type': 'multipart/form-data' },
+    });
+    return response.data;
+  },
+};
+
 // Admin
 export const adminApi = {
   getStats: async (): Promise<Stats> => {
@@ -33,7 +33,11 @@ export interface Post {
   slug: string;
   content?: string;
   excerpt: string;
+  wordCount?: number;
+  readingTime?: number;
   featuredImage?: string;
+  // Set when the featured image was uploaded to the API
+  featuredImageUrls?: ImageUrls;
   status: PostStatus;
   author: {
     id: number;
@@ -41,10 +45,54 @@ export interface Post {
   };
   category: Category;
   tags: Tag[];
+  // Detail view only; content is the editor source, html the sanitized rendering
+  html?: string;
+  toc?: TocEntry[];
+  images?: string[];
+  // Popular list only
+  views?: number;
   createdAt: string;
   updatedAt: string;
 }
 
+export interface ImageUrls {
+  original: string;
+  large: string;
+  thumbnail: string;
+}
+
+export interface UploadedImage {
+  hash: string;
+  contentType: string;
+  width: number;
+  height: number;
+  size: number;
+  variantsReady: boolean;
+  urls: ImageUrls;
+}
+
+export interface PostRevision {
+  number: number;
+  title: string;
+  contentLength: number;
+  createdAt: string;
+  authorId?: number;
+  authorUsername?: string;
+}
+
+export interface TocEntry {
+  level: number;
+  text: string;
+  anchor: string;
+}
+
+export interface CursorResponse<T> {
+  content: T[];
+  size: number;
+  nextCursor: string | null;
+  last: boolean;
+}
+
 export interface PageResponse<T> {
   content: T[];
   page: number;
@@ -60,6 +108,9 @@ export interface Stats {
   totalUsers: number;
   totalCategories: number;
   totalTags: number;
+  postsByStatus?: Record<PostStatus, number>;
+  publishedPostsByCategory?: Record<string, number>;
+  publishedPostsByTag?: Record<string, number>;
 }
 
 export interface PostRequest {